@@ -2,6 +2,7 @@ package com.escola.admin.config;
 
 
 import com.escola.admin.repository.UsuarioRepository;
+import com.escola.admin.security.UsuarioDetailsCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
@@ -21,14 +22,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class ApplicationConfig {
 
     private final UsuarioRepository userRepository;
+    private final UsuarioDetailsCache usuarioDetailsCache;
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> {
-            log.debug(">>> Buscando usuário no banco: {}", username); // Linha de log para teste
-            return userRepository.findByUsername(username)
-                    .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-        };
+        return username -> usuarioDetailsCache.get(username, u -> {
+                    log.debug(">>> Buscando usuário no banco: {}", u); // Só ocorre em cache miss
+                    return userRepository.findByUsername(u);
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
     }
 
     @Bean
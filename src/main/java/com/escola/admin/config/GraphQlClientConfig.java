@@ -1,21 +1,20 @@
 package com.escola.admin.config;
 
+import com.escola.admin.security.TokenRelay;
 import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.graphql.client.HttpGraphQlClient;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
-import org.springframework.web.context.request.RequestAttributes;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 import java.time.Duration;
 
@@ -27,16 +26,40 @@ public class GraphQlClientConfig {
     private static final int TIMEOUT_SECONDS = 10;
     @Value("${util.service.url}")
     private String utilServiceUrl;
+    @Value("${util.service.files-url}")
+    private String utilServiceFilesUrl;
+    @Value("${util.service.http2:false}")
+    private boolean http2;
 
-    @Bean
-    public HttpGraphQlClient httpGraphQlClient(WebClient.Builder webClientBuilder) {
-        HttpClient httpClient = HttpClient.create()
-                .responseTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_SECONDS * 1000);
+    /**
+     * Pool de conexões dedicado ao util-service, compartilhado pelo cliente GraphQL e pelo de arquivos.
+     * Com o limite de conexões e de requisições aguardando conexão, um util-service lento faz as novas chamadas
+     * falharem rápido (pending acquire) em vez de abrir conexões sem limite. Métricas em
+     * {@code reactor.netty.connection.provider.*}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider utilServiceConnectionProvider(
+            @Value("${util.service.pool.max-connections:50}") int maxConnections,
+            @Value("${util.service.pool.pending-acquire-max-count:100}") int pendingAcquireMaxCount,
+            @Value("${util.service.pool.pending-acquire-timeout:PT5S}") Duration pendingAcquireTimeout,
+            @Value("${util.service.pool.max-idle-time:PT30S}") Duration maxIdleTime,
+            @Value("${util.service.pool.max-life-time:PT5M}") Duration maxLifeTime) {
+        return ConnectionProvider.builder("util-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(Duration.ofSeconds(30))
+                .metrics(true)
+                .build();
+    }
 
+    @Bean
+    public HttpGraphQlClient httpGraphQlClient(WebClient.Builder webClientBuilder, ConnectionProvider utilServiceConnectionProvider) {
         WebClient webClient = webClientBuilder.clone()
                 .baseUrl(utilServiceUrl)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(new ReactorClientHttpConnector(httpClient(utilServiceConnectionProvider, utilServiceUrl)))
                 // Aumenta o buffer de memória para 10 MB, permitindo arquivos maiores
                 .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
                 // Adicione o novo filtro de log ANTES do filtro de token
@@ -47,6 +70,38 @@ public class GraphQlClientConfig {
         return HttpGraphQlClient.builder(webClient).build();
     }
 
+    /**
+     * Cliente da API REST de arquivos do util-service (upload multipart e download binário). Os corpos são
+     * transmitidos em blocos, sem limite de tamanho em memória, e nunca convertidos para base64.
+     */
+    @Bean
+    public WebClient utilServiceFilesWebClient(WebClient.Builder webClientBuilder, ConnectionProvider utilServiceConnectionProvider) {
+        return webClientBuilder.clone()
+                .baseUrl(utilServiceFilesUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient(utilServiceConnectionProvider, utilServiceFilesUrl)))
+                .filter(logRequestFilter())
+                .filter(tokenRelayFilter())
+                .build();
+    }
+
+    /**
+     * Latência por requisição em {@code reactor.netty.http.client.*}, com a URI reduzida a uma tag fixa
+     * (os downloads têm o UUID no caminho). Com {@code util.service.http2=true}, negocia HTTP/2 (ALPN em https,
+     * h2c em http), mantendo HTTP/1.1 quando o util-service não suporta.
+     */
+    private HttpClient httpClient(ConnectionProvider connectionProvider, String url) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .responseTimeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT_SECONDS * 1000)
+                .metrics(true, uri -> "util-service");
+        if (http2) {
+            httpClient = url.startsWith("https")
+                    ? httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11)
+                    : httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+
     /**
      * Novo filtro para logar os detalhes da requisição enviada.
      */
@@ -69,27 +124,19 @@ public class GraphQlClientConfig {
         });
     }
 
+    /**
+     * Repassa o token do usuário gravado no contexto do Reactor ({@link TokenRelay}): pelo
+     * {@link com.escola.admin.security.TokenRelayInterceptor} nas operações GraphQL, ou explicitamente por quem
+     * inicia a chamada fora delas (controllers REST, jobs de relatório). Não depende da thread da requisição.
+     */
     private ExchangeFilterFunction tokenRelayFilter() {
-        return (clientRequest, next) -> {
-            String token = getCurrentRequestToken();
-            if (token != null && !token.isBlank()) {
-                // Remove o "Bearer " se ele existir, para evitar duplicação
-                String bearerToken = token.startsWith("Bearer ") ? token.substring(7) : token;
-
-                ClientRequest newRequest = ClientRequest.from(clientRequest)
+        return (clientRequest, next) -> Mono.deferContextual(contexto -> TokenRelay.doContexto(contexto)
+                .map(bearerToken -> next.exchange(ClientRequest.from(clientRequest)
                         .headers(headers -> headers.setBearerAuth(bearerToken))
-                        .build();
-                return next.exchange(newRequest);
-            }
-            return next.exchange(clientRequest);
-        };
-    }
-
-    private String getCurrentRequestToken() {
-        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
-        if (requestAttributes instanceof ServletRequestAttributes attributes) {
-            return attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
-        }
-        return null;
+                        .build()))
+                .orElseGet(() -> {
+                    log.debug("Chamada ao util-service sem token no contexto: {} {}", clientRequest.method(), clientRequest.url());
+                    return next.exchange(clientRequest);
+                }));
     }
-}
\ No newline at end of file
+}
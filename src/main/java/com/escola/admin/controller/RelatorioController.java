@@ -0,0 +1,71 @@
+package com.escola.admin.controller;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.entity.Usuario;
+import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.request.report.FiltroRelatorioRequest;
+import com.escola.admin.model.response.RelatorioBase64Response;
+import com.escola.admin.model.response.RelatorioJobResponse;
+import com.escola.admin.service.report.RelatorioJobService;
+import com.escola.admin.service.report.TipoRelatorioEnum;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.MutationMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@Controller
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class RelatorioController {
+
+    RelatorioJobService relatorioJobService;
+
+    @MutationMapping
+    @PreAuthorize("isAuthenticated()")
+    public Mono<RelatorioJobResponse> solicitarRelatorio(@Argument TipoRelatorioEnum relatorio,
+                                                         @Argument FiltroRelatorioRequest request,
+                                                         @Argument List<StatusContrato> status,
+                                                         Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof Usuario usuarioAutenticado)) {
+            return Mono.error(new IllegalStateException("Principal não é do tipo Usuario."));
+        }
+
+        return relatorioJobService.solicitar(relatorio, request, status, usuarioAutenticado)
+                .onErrorResume(BaseException.class, Mono::error);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public Mono<RelatorioJobResponse> fetchStatusRelatorio(@Argument String id, Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof Usuario usuarioAutenticado)) {
+            return Mono.error(new IllegalStateException("Principal não é do tipo Usuario."));
+        }
+
+        return relatorioJobService.buscarStatus(id, usuarioAutenticado)
+                .onErrorResume(BaseException.class, Mono::error);
+    }
+
+    @QueryMapping
+    @PreAuthorize("isAuthenticated()")
+    public Mono<RelatorioBase64Response> downloadRelatorio(@Argument String id, Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof Usuario usuarioAutenticado)) {
+            return Mono.error(new IllegalStateException("Principal não é do tipo Usuario."));
+        }
+
+        return relatorioJobService.baixar(id, usuarioAutenticado)
+                .onErrorResume(BaseException.class, Mono::error);
+    }
+}
@@ -0,0 +1,86 @@
+package com.escola.admin.controller.cliente;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.mapper.cliente.AnexoMapper;
+import com.escola.admin.model.response.cliente.AnexoResponse;
+import com.escola.admin.security.TokenRelay;
+import com.escola.admin.service.cliente.AnexoService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Upload e download binários dos anexos, sem base64: o arquivo recebido em multipart é repassado ao
+ * serviço de arquivos em blocos, e o download é escrito na resposta à medida que chega do serviço.
+ * As operações GraphQL {@code uploadAnexo}/{@code downloadAnexo} continuam disponíveis.
+ */
+@RestController
+@RequestMapping("/api/anexos")
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Slf4j
+public class AnexoArquivoController {
+
+    AnexoMapper mapper;
+    AnexoService anexoService;
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public Mono<AnexoResponse> upload(@RequestParam Long idContrato,
+                                      @RequestPart("arquivo") MultipartFile arquivo,
+                                      @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        String nomeArquivo = StringUtils.hasText(arquivo.getOriginalFilename()) ? arquivo.getOriginalFilename() : "arquivo";
+        return anexoService.upload(idContrato, nomeArquivo, arquivo.getResource())
+                .map(mapper::toResponse)
+                .onErrorMap(BaseException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e))
+                .contextWrite(TokenRelay.comToken(authorization));
+    }
+
+    @GetMapping("/{id}/arquivo")
+    @PreAuthorize("isAuthenticated()")
+    public Mono<ResponseEntity<StreamingResponseBody>> download(@PathVariable Long id,
+                                                                @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        return anexoService.abrirArquivo(id)
+                .map(arquivo -> {
+                    String nomeArquivo = arquivo.nomeArquivo();
+                    // O conteúdo é assinado na thread de escrita da resposta: o token vai pelo contexto do Reactor.
+                    StreamingResponseBody corpo = saida -> DataBufferUtils.write(arquivo.conteudo(), saida)
+                            .map(DataBufferUtils::release)
+                            .contextWrite(TokenRelay.comToken(authorization))
+                            .then()
+                            .block();
+                    return ResponseEntity.ok()
+                            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                                    .filename(nomeArquivo, StandardCharsets.UTF_8)
+                                    .build()
+                                    .toString())
+                            .contentType(MediaTypeFactory.getMediaType(nomeArquivo).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                            .body(corpo);
+                })
+                .onErrorMap(BaseException.class, e -> new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e));
+    }
+}
@@ -3,27 +3,44 @@ package com.escola.admin.controller.cliente;
 import com.escola.admin.controller.help.PageableHelp;
 import com.escola.admin.controller.help.SortInput;
 import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.entity.Role;
+import com.escola.admin.model.entity.Usuario;
+import com.escola.admin.model.entity.cliente.Contrato;
 import com.escola.admin.model.mapper.cliente.ContaReceberMapper;
+import com.escola.admin.model.mapper.cliente.ContratoMapper;
+import com.escola.admin.model.request.cliente.ContaReceberLoteRequest;
 import com.escola.admin.model.request.cliente.ContaReceberRequest;
+import com.escola.admin.model.response.cliente.ContaReceberLoteResponse;
 import com.escola.admin.model.response.cliente.ContaReceberPorMesDetalheResponse;
 import com.escola.admin.model.response.cliente.ContaReceberPorMesResumeResponse;
 import com.escola.admin.model.response.cliente.ContaReceberResponse;
+import com.escola.admin.model.response.cliente.ContratoResponse;
 import com.escola.admin.service.cliente.ContaReceberService;
+import com.escola.admin.service.cliente.ContratoService;
+import com.escola.admin.service.cliente.ResumoContaReceberService;
 import graphql.GraphQLException;
+import jakarta.annotation.PostConstruct;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.graphql.data.method.annotation.Argument;
 import org.springframework.graphql.data.method.annotation.MutationMapping;
 import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.graphql.execution.BatchLoaderRegistry;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Controller
 @RequiredArgsConstructor
@@ -35,7 +52,11 @@ public class ContaReceberController {
     ContaReceberMapper mapper;
     //    ContaReceberMapper mapper;
     ContaReceberService service;
+    ContratoService contratoService;
+    ResumoContaReceberService resumoService;
+    ContratoMapper contratoMapper;
     PageableHelp pageableHelp;
+    BatchLoaderRegistry batchLoaderRegistry;
 
     @MutationMapping
     @PreAuthorize("hasAnyAuthority('FINANCEIRO', 'ADMIN_EMPRESA')")
@@ -45,6 +66,20 @@ public class ContaReceberController {
                 .onErrorResume(e -> Mono.error(new GraphQLException("Falha realizar operação: " + e.getMessage())));
     }
 
+    /**
+     * Gera as parcelas de todos os contratos da empresa (opcionalmente de uma turma ou curso) que ainda não as possuem.
+     */
+    @MutationMapping
+    @PreAuthorize("hasAnyAuthority('FINANCEIRO', 'ADMIN_EMPRESA')")
+    public Mono<ContaReceberLoteResponse> criarContasReceberEmLote(@Argument ContaReceberLoteRequest filtro, Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof Usuario usuarioAutenticado)) {
+            return Mono.error(new IllegalStateException("Principal não é do tipo Usuario."));
+        }
+        return service.criarEmLote(filtro, usuarioAutenticado.getEmpresaIdFromToken())
+                .onErrorResume(e -> Mono.error(new GraphQLException("Falha realizar operação: " + e.getMessage())));
+    }
+
     @MutationMapping
     @PreAuthorize("hasAnyAuthority('FINANCEIRO', 'ADMIN_EMPRESA')")
     public Mono<String> saveContaReceber(@Argument ContaReceberRequest request) {
@@ -77,8 +112,34 @@ public class ContaReceberController {
 
     @QueryMapping
     @PreAuthorize("hasAnyAuthority('FINANCEIRO', 'ADMIN_EMPRESA')")
-    public Mono<ContaReceberPorMesResumeResponse> fetchResumoByMes(@Argument LocalDate dataRef) {
-        return service.fetchResumoByMes(dataRef);
+    public Mono<ContaReceberPorMesResumeResponse> fetchResumoByMes(@Argument LocalDate dataRef, Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof Usuario usuarioAutenticado)) {
+            return Mono.error(new IllegalStateException("Principal não é do tipo Usuario."));
+        }
+        return service.fetchResumoByMes(dataRef, usuarioAutenticado.getEmpresaIdFromToken());
+    }
+
+    /**
+     * Recalcula o resumo mensal materializado a partir de tb_conta_receber (reparo).
+     * Apenas SUPER_ADMIN sem empresa no token reconstrói o resumo de todas as empresas; para os demais perfis a
+     * empresa do token é obrigatória.
+     */
+    @MutationMapping
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ADMIN_EMPRESA')")
+    public Mono<String> reconstruirResumoContasReceber(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        if (!(principal instanceof Usuario usuarioAutenticado)) {
+            return Mono.error(new IllegalStateException("Principal não é do tipo Usuario."));
+        }
+        Long idEmpresa = usuarioAutenticado.getEmpresaIdFromToken();
+        boolean superAdmin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> Role.SUPER_ADMIN.name().equals(authority.getAuthority()));
+        if (idEmpresa == null && !superAdmin) {
+            return Mono.error(new BaseException("Empresa não identificada no token. Apenas SUPER_ADMIN pode reconstruir o resumo de todas as empresas."));
+        }
+        return resumoService.reconstruir(idEmpresa)
+                .map(meses -> "Resumo reconstruído com sucesso. Meses processados: %d".formatted(meses));
     }
 
     @QueryMapping
@@ -92,4 +153,39 @@ public class ContaReceberController {
                 .orElse(Page.empty());
     }
 
+    /**
+     * Registra o carregador de contratos (com cliente) usado pelos campos 'contrato' e 'nome' do detalhe: os dois
+     * campos compartilham o mesmo DataLoader da requisição, então os contratos da página saem de uma única consulta.
+     */
+    @PostConstruct
+    void registrarCarregadorDeContratos() {
+        batchLoaderRegistry.forTypePair(Long.class, Contrato.class)
+                .registerMappedBatchLoader((ids, ambiente) -> contratoService.findAllComClienteByIds(ids)
+                        .map(contratos -> contratos.stream()
+                                .collect(Collectors.toMap(Contrato::getId, Function.identity()))));
+    }
+
+    @SchemaMapping(typeName = "ContaReceberPorMesResumeDetalheResponse", field = "contrato")
+    public CompletableFuture<ContratoResponse> contrato(ContaReceberPorMesDetalheResponse linha,
+                                                       DataLoader<Long, Contrato> contratos) {
+        return carregarContrato(linha, contratos)
+                .thenApply(contrato -> contrato != null ? contratoMapper.toResponse(contrato) : null);
+    }
+
+    /**
+     * Nome do cliente do contrato, lido do mesmo contrato carregado para o campo 'contrato'.
+     */
+    @SchemaMapping(typeName = "ContaReceberPorMesResumeDetalheResponse", field = "nome")
+    public CompletableFuture<String> nome(ContaReceberPorMesDetalheResponse linha,
+                                          DataLoader<Long, Contrato> contratos) {
+        return carregarContrato(linha, contratos)
+                .thenApply(contrato -> contrato != null ? contrato.getCliente().getNome() : null);
+    }
+
+    private static CompletableFuture<Contrato> carregarContrato(ContaReceberPorMesDetalheResponse linha,
+                                                                DataLoader<Long, Contrato> contratos) {
+        return linha.idContrato() != null
+                ? contratos.load(linha.idContrato())
+                : CompletableFuture.completedFuture(null);
+    }
 }
@@ -0,0 +1,82 @@
+package com.escola.admin.model.entity;
+
+import com.escola.admin.service.report.StatusRelatorioJobEnum;
+import com.escola.admin.service.report.TipoRelatorioEnum;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Relatório solicitado de forma assíncrona ({@code RelatorioJobService}).
+ * <p>
+ * O estado fica no banco, e não na memória do nó que gera o arquivo: com várias instâncias atrás do Eureka, o status
+ * e o download podem ser consultados em qualquer uma delas. Após a inclusão, a linha só é alterada via consultas de
+ * atualização do repositório, que não carregam o arquivo.
+ * <pre>
+ * CREATE TABLE tb_relatorio_job (
+ *     id               VARCHAR(36)  PRIMARY KEY,
+ *     relatorio        VARCHAR(20)  NOT NULL,
+ *     username         VARCHAR(255) NOT NULL,
+ *     id_empresa       BIGINT,
+ *     status           VARCHAR(20)  NOT NULL,
+ *     data_solicitacao TIMESTAMPTZ  NOT NULL,
+ *     data_conclusao   TIMESTAMPTZ,
+ *     data_atualizacao TIMESTAMPTZ  NOT NULL,
+ *     nome_arquivo     VARCHAR(255),
+ *     conteudo_base64  TEXT,
+ *     mensagem_erro    TEXT
+ * );
+ * CREATE INDEX idx_relatorio_job_data_atualizacao ON tb_relatorio_job (data_atualizacao);
+ * </pre>
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(of = "id")
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tb_relatorio_job")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class RelatorioJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "relatorio", nullable = false, length = 20)
+    TipoRelatorioEnum relatorio;
+
+    @Column(name = "username", nullable = false)
+    String username;
+
+    @Column(name = "id_empresa")
+    Long idEmpresa;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    StatusRelatorioJobEnum status;
+
+    @Column(name = "data_solicitacao", nullable = false)
+    OffsetDateTime dataSolicitacao;
+
+    @Column(name = "data_conclusao")
+    OffsetDateTime dataConclusao;
+
+    @Column(name = "data_atualizacao", nullable = false)
+    OffsetDateTime dataAtualizacao;
+
+    @Column(name = "nome_arquivo")
+    String nomeArquivo;
+
+    @ToString.Exclude
+    @Column(name = "conteudo_base64", columnDefinition = "text")
+    String conteudoBase64;
+
+    @Column(name = "mensagem_erro", columnDefinition = "text")
+    String mensagemErro;
+}
@@ -22,8 +22,11 @@ import java.time.LocalDateTime;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class ContaReceber {
 
+    // SEQUENCE (e não IDENTITY) para permitir insert em lote via JDBC batching; os IDs são reservados
+    // em blocos de 50 (otimizador pooled). Requer: ALTER SEQUENCE tb_conta_receber_id_seq INCREMENT BY 50;
     @Id // Marca o campo como chave primária
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Estratégia de geração de valor para a chave primária (auto-incremento)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_conta_receber")
+    @SequenceGenerator(name = "seq_conta_receber", sequenceName = "tb_conta_receber_id_seq", allocationSize = 50)
     Long id; // Usamos Long para IDs, pois Integer pode ser limitado para IDs de auto-incremento em sistemas maiores
 
     @ManyToOne(fetch = FetchType.LAZY)
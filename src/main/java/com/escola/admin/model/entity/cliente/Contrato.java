@@ -9,6 +9,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -48,6 +49,11 @@ public class Contrato {
     @Column(name = "desconto", nullable = false, precision = 10, scale = 2)
     BigDecimal desconto; // BigDecimal é ideal para valores monetários
 
+    // Soma do valor pago das parcelas. Mantido somente por incremento atômico no banco
+    // (ContratoRepository#somarTotalPago), por isso nunca é escrito pelo save da entidade.
+    @Column(name = "total_pago", nullable = false, precision = 10, scale = 2, insertable = false, updatable = false)
+    BigDecimal totalPago;
+
     @Enumerated(EnumType.STRING) // Define como o enum será persistido no banco de dados
     @Column(name = "status_contrato", nullable = false, length = 50)
     StatusContrato statusContrato; // O tipo agora é o enum StatusContrato
@@ -103,4 +109,16 @@ public class Contrato {
         dataAtualizacao = LocalDateTime.now();
     }
 
+    /**
+     * Valor total com o desconto (percentual) aplicado, arredondado para duas casas. Desconto nulo ou fora do
+     * intervalo de 0 a 100 é ignorado.
+     */
+    public BigDecimal calcularValorFinalComDesconto() {
+        if (desconto == null || desconto.compareTo(BigDecimal.ZERO) < 0 || desconto.compareTo(new BigDecimal("100")) > 0) {
+            return valorTotal;
+        }
+        BigDecimal porcentagemDecimal = desconto.divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
+        return valorTotal.subtract(valorTotal.multiply(porcentagemDecimal)).setScale(2, RoundingMode.HALF_UP);
+    }
+
 }
\ No newline at end of file
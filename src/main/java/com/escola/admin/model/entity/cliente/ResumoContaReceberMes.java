@@ -0,0 +1,50 @@
+package com.escola.admin.model.entity.cliente;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Resumo materializado das contas a receber por empresa e mês (contratos ATIVO/CONCLUIDO).
+ * <p>
+ * A tabela é mantida pelo {@code ResumoContaReceberService} a cada alteração de parcela e só é
+ * escrita via SQL nativo (upsert), por isso a entidade é somente leitura.
+ * <pre>
+ * CREATE TABLE tb_resumo_conta_receber_mes (
+ *     id_empresa       BIGINT         NOT NULL,
+ *     mes_referencia   DATE           NOT NULL,
+ *     total_esperado   NUMERIC(12, 2) NOT NULL DEFAULT 0,
+ *     total_recebido   NUMERIC(12, 2) NOT NULL DEFAULT 0,
+ *     data_atualizacao TIMESTAMP      NOT NULL,
+ *     PRIMARY KEY (id_empresa, mes_referencia)
+ * );
+ * </pre>
+ */
+@Getter
+@Setter
+@ToString
+@EqualsAndHashCode(of = "id")
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Immutable
+@Table(name = "tb_resumo_conta_receber_mes")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ResumoContaReceberMes {
+
+    @EmbeddedId
+    ResumoContaReceberMesId id;
+
+    @Column(name = "total_esperado", nullable = false, precision = 12, scale = 2)
+    BigDecimal totalEsperado;
+
+    @Column(name = "total_recebido", nullable = false, precision = 12, scale = 2)
+    BigDecimal totalRecebido;
+
+    @Column(name = "data_atualizacao", nullable = false)
+    LocalDateTime dataAtualizacao;
+}
@@ -0,0 +1,28 @@
+package com.escola.admin.model.entity.cliente;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+import lombok.experimental.FieldDefaults;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Chave do resumo mensal: empresa + primeiro dia do mês de referência.
+ */
+@Getter
+@Setter
+@EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ResumoContaReceberMesId implements Serializable {
+
+    @Column(name = "id_empresa", nullable = false)
+    Long idEmpresa;
+
+    @Column(name = "mes_referencia", nullable = false)
+    LocalDate mesReferencia;
+}
@@ -28,6 +28,7 @@ public interface ContratoMapper {
     @Mapping(target = "dataCadastro", ignore = true)
     @Mapping(target = "dataAtualizacao", ignore = true)
     @Mapping(target = "contratoDoc", ignore = true)
+    @Mapping(target = "totalPago", ignore = true)
     Contrato toEntity(ContratoRequest request);
 
     @Mapping(target = "cliente", ignore = true)
@@ -36,6 +37,7 @@ public interface ContratoMapper {
     @Mapping(target = "dataCadastro", ignore = true)
     @Mapping(target = "dataAtualizacao", ignore = true)
     @Mapping(target = "contratoDoc", ignore = true)
+    @Mapping(target = "totalPago", ignore = true)
     Contrato updateEntity(ContratoRequest source, @MappingTarget Contrato target);
 
     /**
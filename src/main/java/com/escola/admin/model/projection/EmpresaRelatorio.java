@@ -0,0 +1,15 @@
+package com.escola.admin.model.projection;
+
+/**
+ * Colunas do relatório de empresas (sem o logo, associação carregada junto com a entidade).
+ */
+public record EmpresaRelatorio(
+        Long id,
+        String nomeFantasia,
+        String razaoSocial,
+        String cnpj,
+        String inscricaoEstadual,
+        String email,
+        String telefone
+) implements RegistroRelatorio {
+}
@@ -0,0 +1,9 @@
+package com.escola.admin.model.projection;
+
+/**
+ * Linha de relatório percorrida por chave: a próxima página começa depois do {@link #id()} da última linha lida.
+ */
+public interface RegistroRelatorio {
+
+    Long id();
+}
@@ -0,0 +1,30 @@
+package com.escola.admin.model.projection;
+
+import com.escola.admin.service.report.StatusRelatorioJobEnum;
+import com.escola.admin.service.report.TipoRelatorioEnum;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * Estado de um job de relatório sem o arquivo gerado, para as consultas de status.
+ */
+public record RelatorioJobResumo(
+        String id,
+        TipoRelatorioEnum relatorio,
+        String username,
+        Long idEmpresa,
+        StatusRelatorioJobEnum status,
+        OffsetDateTime dataSolicitacao,
+        OffsetDateTime dataConclusao,
+        OffsetDateTime dataAtualizacao,
+        String mensagemErro
+) {
+
+    /**
+     * O job só é visível para quem o solicitou, no contexto da mesma empresa (inclusive em impersonação).
+     */
+    public boolean pertenceA(String username, Long idEmpresa) {
+        return this.username.equals(username) && Objects.equals(this.idEmpresa, idEmpresa);
+    }
+}
@@ -0,0 +1,31 @@
+package com.escola.admin.model.projection;
+
+import com.escola.admin.model.entity.Role;
+
+import java.util.Set;
+
+/**
+ * Colunas do relatório de usuários. As roles não entram na consulta principal (são uma coleção):
+ * são buscadas para a página inteira de uma só vez e incluídas com {@link #comRoles(Set)}.
+ */
+public record UsuarioRelatorio(
+        Long id,
+        String firstname,
+        String lastname,
+        String username,
+        String nomeEmpresa,
+        String email,
+        Set<Role> roles
+) implements RegistroRelatorio {
+
+    /**
+     * Construtor usado pela consulta JPQL.
+     */
+    public UsuarioRelatorio(Long id, String firstname, String lastname, String username, String nomeEmpresa, String email) {
+        this(id, firstname, lastname, username, nomeEmpresa, email, Set.of());
+    }
+
+    public UsuarioRelatorio comRoles(Set<Role> roles) {
+        return new UsuarioRelatorio(id, firstname, lastname, username, nomeEmpresa, email, roles);
+    }
+}
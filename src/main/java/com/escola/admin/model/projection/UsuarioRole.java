@@ -0,0 +1,12 @@
+package com.escola.admin.model.projection;
+
+import com.escola.admin.model.entity.Role;
+
+/**
+ * Par usuário/role, usado para carregar as roles de vários usuários em uma única consulta.
+ */
+public record UsuarioRole(
+        Long idUsuario,
+        Role role
+) {
+}
@@ -0,0 +1,19 @@
+package com.escola.admin.model.projection.auxiliar;
+
+import com.escola.admin.model.entity.auxiliar.StatusTurma;
+import com.escola.admin.model.projection.RegistroRelatorio;
+
+/**
+ * Colunas do relatório de turmas. O nome do curso vem no mesmo SELECT (sem uma consulta por turma)
+ * e os dias da semana (coleção EAGER da entidade) não são carregados.
+ */
+public record TurmaRelatorio(
+        Long id,
+        String codigo,
+        String nome,
+        String nomeCurso,
+        String anoPeriodo,
+        String professor,
+        StatusTurma status
+) implements RegistroRelatorio {
+}
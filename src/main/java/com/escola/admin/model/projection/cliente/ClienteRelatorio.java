@@ -0,0 +1,23 @@
+package com.escola.admin.model.projection.cliente;
+
+import com.escola.admin.model.entity.cliente.StatusCliente;
+import com.escola.admin.model.projection.RegistroRelatorio;
+
+import java.time.LocalDate;
+
+/**
+ * Colunas do relatório de clientes.
+ */
+public record ClienteRelatorio(
+        Long id,
+        String nome,
+        LocalDate dataNascimento,
+        String docCPF,
+        String docRG,
+        String endereco,
+        String email,
+        String profissao,
+        String localTrabalho,
+        StatusCliente statusCliente
+) implements RegistroRelatorio {
+}
@@ -0,0 +1,17 @@
+package com.escola.admin.model.projection.cliente;
+
+import java.math.BigDecimal;
+
+/**
+ * Dados mínimos de um contrato para a geração de parcelas em lote:
+ * evita carregar a entidade {@code Contrato} (e seus relacionamentos) para cada contrato elegível.
+ */
+public record ContratoParcelamento(
+        Long id,
+        String numeroContrato,
+        Long idEmpresa,
+        BigDecimal valorTotal,
+        BigDecimal desconto,
+        BigDecimal valorMensalidade
+) {
+}
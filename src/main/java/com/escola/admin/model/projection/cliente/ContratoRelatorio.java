@@ -0,0 +1,24 @@
+package com.escola.admin.model.projection.cliente;
+
+import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.projection.RegistroRelatorio;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Colunas do relatório de contratos. Evita carregar a entidade {@code Contrato} inteira
+ * (documento HTML do contrato, termos, cliente completo) apenas para listar estes campos.
+ */
+public record ContratoRelatorio(
+        Long id,
+        String numeroContrato,
+        String nomeCliente,
+        LocalDate dataInicio,
+        LocalDate dataFim,
+        BigDecimal valorTotal,
+        StatusContrato statusContrato,
+        String periodoPagamento,
+        String observacoes
+) implements RegistroRelatorio {
+}
@@ -0,0 +1,13 @@
+package com.escola.admin.model.projection.cliente;
+
+import java.time.LocalDate;
+
+/**
+ * Data de vencimento de uma parcela e a empresa do contrato: identifica o mês do resumo de contas a receber
+ * afetado por uma exclusão em massa, lido antes de as parcelas serem apagadas.
+ */
+public record VencimentoEmpresa(
+        Long idEmpresa,
+        LocalDate dataVencimento
+) {
+}
@@ -0,0 +1,13 @@
+package com.escola.admin.model.request.cliente;
+
+import lombok.Builder;
+
+/**
+ * Filtro da geração de parcelas em lote. Sem turma nem curso, considera todos os contratos da empresa do token.
+ */
+@Builder
+public record ContaReceberLoteRequest(
+        Long idTurma,
+        Long idCurso
+) {
+}
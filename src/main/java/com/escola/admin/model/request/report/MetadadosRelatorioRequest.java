@@ -1,5 +1,6 @@
 package com.escola.admin.model.request.report;
 
+import com.itextpdf.io.image.ImageData;
 import lombok.Builder;
 
 @Builder
@@ -8,6 +9,6 @@ public record MetadadosRelatorioRequest(
         String titulo,
         String subtitulo,
         String nomeArquivo,
-        String logoBase64
+        ImageData logo // Logo da empresa já decodificado (ver LogoCacheService); null usa o logo padrão
 ) {
 }
@@ -0,0 +1,18 @@
+package com.escola.admin.model.response;
+
+import com.escola.admin.service.report.StatusRelatorioJobEnum;
+import com.escola.admin.service.report.TipoRelatorioEnum;
+import lombok.Builder;
+
+import java.time.OffsetDateTime;
+
+@Builder
+public record RelatorioJobResponse(
+        String id,
+        TipoRelatorioEnum relatorio,
+        StatusRelatorioJobEnum status,
+        OffsetDateTime dataSolicitacao,
+        OffsetDateTime dataConclusao,
+        String mensagemErro
+) {
+}
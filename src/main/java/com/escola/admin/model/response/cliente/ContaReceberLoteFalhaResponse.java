@@ -0,0 +1,11 @@
+package com.escola.admin.model.response.cliente;
+
+/**
+ * Contrato que não teve as parcelas geradas na execução em lote, com o motivo.
+ */
+public record ContaReceberLoteFalhaResponse(
+        Long idContrato,
+        String numeroContrato,
+        String motivo
+) {
+}
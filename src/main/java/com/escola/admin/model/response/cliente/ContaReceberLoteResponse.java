@@ -0,0 +1,17 @@
+package com.escola.admin.model.response.cliente;
+
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Resultado da geração de parcelas em lote.
+ */
+@Builder
+public record ContaReceberLoteResponse(
+        int contratosProcessados,
+        int contratosComParcelas,
+        int parcelasGeradas,
+        List<ContaReceberLoteFalhaResponse> falhas
+) {
+}
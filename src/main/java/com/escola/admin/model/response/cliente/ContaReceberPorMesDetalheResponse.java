@@ -6,10 +6,13 @@ import lombok.Builder;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+/**
+ * Linha do detalhamento mensal. Os campos {@code contrato} e {@code nome} do schema GraphQL
+ * não fazem parte do record: são resolvidos em lote ({@code @BatchMapping}) a partir de {@code idContrato}.
+ */
 @Builder
 public record ContaReceberPorMesDetalheResponse(
-        ContratoResponse contrato,
-        String nome,
+        Long idContrato,
         BigDecimal valorTotal,
         @JsonFormat(pattern = "yyyy-MM-dd")
         LocalDate dataVencimento,
@@ -1,16 +1,29 @@
 package com.escola.admin.repository;
 
 import com.escola.admin.model.entity.Empresa;
+import com.escola.admin.model.projection.EmpresaRelatorio;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface EmpresaRepository extends CrudRepository<Empresa, Long> {
 
+    String FILTRO_RELATORIO = "FROM Empresa e " +
+            " WHERE ( (:criteria IS NULL OR :criteria = '') OR " +
+            " (LOWER(e.nomeFantasia) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.razaoSocial) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.email) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.cnpj) LIKE LOWER(CONCAT('%', :criteria, '%')) ) ) ";
+
+    String PROXIMA_PAGINA_RELATORIO = " AND e.id > :ultimoId ORDER BY e.id";
+
     @Query("SELECT e FROM Empresa e " +
             " WHERE (:criteria IS NULL OR :criteria = '') OR " +
             " (LOWER(e.nomeFantasia) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
@@ -19,4 +32,16 @@ public interface EmpresaRepository extends CrudRepository<Empresa, Long> {
             " (LOWER(e.cnpj) LIKE LOWER(CONCAT('%', :criteria, '%')) ) ")
     Optional<Page<Empresa>> findByFiltro(@Param("criteria") String filtro, Pageable pageable);
 
+    /**
+     * Mesmo filtro de {@link #findByFiltro}, projetando apenas as colunas do relatório de empresas.
+     */
+    @Query(value = "SELECT new com.escola.admin.model.projection.EmpresaRelatorio(" +
+            " e.id, e.nomeFantasia, e.razaoSocial, e.cnpj, e.inscricaoEstadual, e.email, e.telefone) " + FILTRO_RELATORIO + PROXIMA_PAGINA_RELATORIO)
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar colunas do relatório de empresas.")
+    })
+    List<EmpresaRelatorio> findRelatorioByFiltro(@Param("criteria") String filtro, @Param("ultimoId") Long ultimoId, Pageable pageable);
+
 }
\ No newline at end of file
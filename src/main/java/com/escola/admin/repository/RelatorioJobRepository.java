@@ -0,0 +1,70 @@
+package com.escola.admin.repository;
+
+import com.escola.admin.model.entity.RelatorioJob;
+import com.escola.admin.model.projection.RelatorioJobResumo;
+import com.escola.admin.model.response.RelatorioBase64Response;
+import com.escola.admin.service.report.StatusRelatorioJobEnum;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Jobs de relatório. As consultas de status e as transições não leem nem regravam o arquivo gerado.
+ */
+public interface RelatorioJobRepository extends JpaRepository<RelatorioJob, String> {
+
+    @Query("""
+            SELECT new com.escola.admin.model.projection.RelatorioJobResumo(
+                j.id, j.relatorio, j.username, j.idEmpresa, j.status,
+                j.dataSolicitacao, j.dataConclusao, j.dataAtualizacao, j.mensagemErro)
+            FROM RelatorioJob j
+            WHERE j.id = :id
+            """)
+    Optional<RelatorioJobResumo> findResumoById(@Param("id") String id);
+
+    @Query("""
+            SELECT new com.escola.admin.model.response.RelatorioBase64Response(j.nomeArquivo, j.conteudoBase64)
+            FROM RelatorioJob j
+            WHERE j.id = :id
+            """)
+    Optional<RelatorioBase64Response> findArquivoById(@Param("id") String id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE RelatorioJob j SET j.status = :status, j.dataAtualizacao = :agora WHERE j.id = :id")
+    int atualizarStatus(@Param("id") String id, @Param("status") StatusRelatorioJobEnum status,
+                        @Param("agora") OffsetDateTime agora);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE RelatorioJob j
+            SET j.status = com.escola.admin.service.report.StatusRelatorioJobEnum.CONCLUIDO,
+                j.nomeArquivo = :nomeArquivo, j.conteudoBase64 = :conteudoBase64,
+                j.dataConclusao = :agora, j.dataAtualizacao = :agora
+            WHERE j.id = :id
+            """)
+    int concluir(@Param("id") String id, @Param("nomeArquivo") String nomeArquivo,
+                 @Param("conteudoBase64") String conteudoBase64, @Param("agora") OffsetDateTime agora);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE RelatorioJob j
+            SET j.status = com.escola.admin.service.report.StatusRelatorioJobEnum.ERRO,
+                j.mensagemErro = :mensagemErro, j.dataConclusao = :agora, j.dataAtualizacao = :agora
+            WHERE j.id = :id
+            """)
+    int registrarErro(@Param("id") String id, @Param("mensagemErro") String mensagemErro,
+                      @Param("agora") OffsetDateTime agora);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RelatorioJob j WHERE j.dataAtualizacao < :limite")
+    int excluirExpirados(@Param("limite") OffsetDateTime limite);
+}
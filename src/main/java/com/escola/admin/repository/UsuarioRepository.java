@@ -2,16 +2,32 @@ package com.escola.admin.repository;
 
 import com.escola.admin.model.entity.Empresa;
 import com.escola.admin.model.entity.Usuario;
+import com.escola.admin.model.projection.UsuarioRelatorio;
+import com.escola.admin.model.projection.UsuarioRole;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
 
+    String FILTRO_RELATORIO = "FROM Usuario e " +
+            " LEFT JOIN e.empresa emp " +
+            " WHERE ( (:criteria IS NULL OR :criteria = '') OR " +
+            " (LOWER(e.username) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.firstname) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.email) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.lastname) LIKE LOWER(CONCAT('%', :criteria, '%')) ) ) ";
+
+    String PROXIMA_PAGINA_RELATORIO = " AND e.id > :ultimoId ORDER BY e.id";
+
     /**
      * Finds a user by their username. This method is essential for the
      * UserDetailsService to load the user during the authentication process.
@@ -31,6 +47,24 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
             " (LOWER(e.lastname) LIKE LOWER(CONCAT('%', :criteria, '%')) ) ")
     Optional<Page<Usuario>> findByFiltro(@Param("criteria") String filtro, Pageable pageable);
 
+    /**
+     * Mesmo filtro de {@link #findByFiltro}, projetando apenas as colunas do relatório de usuários.
+     * As roles são carregadas à parte, por página, com {@link #findRolesByUsuarioIdIn}.
+     */
+    @Query(value = "SELECT new com.escola.admin.model.projection.UsuarioRelatorio(" +
+            " e.id, e.firstname, e.lastname, e.username, emp.nomeFantasia, e.email) " + FILTRO_RELATORIO + PROXIMA_PAGINA_RELATORIO)
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar colunas do relatório de usuários.")
+    })
+    List<UsuarioRelatorio> findRelatorioByFiltro(@Param("criteria") String filtro, @Param("ultimoId") Long ultimoId, Pageable pageable);
+
+    @Query("SELECT new com.escola.admin.model.projection.UsuarioRole(u.id, r) " +
+            "FROM Usuario u JOIN u.roles r " +
+            "WHERE u.id IN :ids")
+    List<UsuarioRole> findRolesByUsuarioIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT e FROM Usuario e " +
             " WHERE e.empresa.id = :idEmpresa " + // This condition always applies
             " AND ( (:criteria IS NULL OR :criteria = '') OR " + // If criteria is null/empty, this is TRUE
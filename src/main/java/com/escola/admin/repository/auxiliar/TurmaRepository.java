@@ -3,9 +3,12 @@ package com.escola.admin.repository.auxiliar;
 import com.escola.admin.model.entity.auxiliar.Curso;
 import com.escola.admin.model.entity.auxiliar.StatusTurma;
 import com.escola.admin.model.entity.auxiliar.Turma;
+import com.escola.admin.model.projection.auxiliar.TurmaRelatorio;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -14,6 +17,16 @@ import java.util.Optional;
 
 public interface TurmaRepository extends CrudRepository<Turma, Long> {
 
+    String FILTRO_RELATORIO = "FROM Turma e " +
+            " JOIN e.curso c " +
+            " WHERE e.empresa.id = :idEmpresa " +
+            " AND ( (:criteria IS NULL OR :criteria = '') OR " +
+            " (LOWER(e.nome) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.codigo) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.professor) LIKE LOWER(CONCAT('%', :criteria, '%'))) ) ";
+
+    String PROXIMA_PAGINA_RELATORIO = " AND e.id > :ultimoId ORDER BY e.id";
+
     @Query("SELECT e FROM Turma e " +
             " WHERE e.empresa.id = :idEmpresa " +
             " AND (:status IS NULL OR e.status in :status) " + // <-- This line was added
@@ -26,6 +39,18 @@ public interface TurmaRepository extends CrudRepository<Turma, Long> {
                                        @Param("idEmpresa") Long idEmpresa,
                                        Pageable pageable);
 
+    /**
+     * Mesmo filtro de {@link #findByFiltro} (sem status), projetando apenas as colunas do relatório de turmas.
+     */
+    @Query(value = "SELECT new com.escola.admin.model.projection.auxiliar.TurmaRelatorio(" +
+            " e.id, e.codigo, e.nome, c.nome, e.anoPeriodo, e.professor, e.status) " + FILTRO_RELATORIO + PROXIMA_PAGINA_RELATORIO)
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar colunas do relatório de turmas.")
+    })
+    List<TurmaRelatorio> findRelatorioByFiltro(@Param("criteria") String filtro, @Param("idEmpresa") Long idEmpresa, @Param("ultimoId") Long ultimoId, Pageable pageable);
+
     @Query("SELECT t FROM Turma t " +
             " JOIN FETCH t.curso c" +
             " JOIN FETCH t.empresa e" +
@@ -2,16 +2,32 @@ package com.escola.admin.repository.cliente;
 
 import com.escola.admin.model.entity.cliente.Cliente;
 import com.escola.admin.model.entity.cliente.StatusCliente;
+import com.escola.admin.model.projection.cliente.ClienteRelatorio;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface ClienteRepository extends CrudRepository<Cliente, Long> {
 
+    String FILTRO_RELATORIO = "FROM Cliente e " +
+            " WHERE e.empresa.id = :idEmpresa " +
+            " AND ( (:criteria IS NULL OR :criteria = '') OR " +
+            " (LOWER(e.nome) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(FUNCTION('TO_CHAR', e.dataNascimento, 'DD/MM/YYYY')) LIKE LOWER(CONCAT('%', :criteria, '%'))) OR" +
+            " (LOWER(FUNCTION('TO_CHAR', e.dataNascimento, 'MM/YYYY')) LIKE LOWER(CONCAT('%', :criteria, '%'))) OR" +
+            " (LOWER(FUNCTION('TO_CHAR', e.dataNascimento, 'YYYY')) LIKE LOWER(CONCAT('%', :criteria, '%'))) OR" +
+            " (LOWER(e.docCPF) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(e.docRG) LIKE LOWER(CONCAT('%', :criteria, '%'))) )";
+
+    String PROXIMA_PAGINA_RELATORIO = " AND e.id > :ultimoId ORDER BY e.id";
+
     @Query("SELECT e FROM Cliente e " +
             " WHERE e.empresa.id = :idEmpresa " +
             " AND ( (:criteria IS NULL OR :criteria = '') OR " +
@@ -23,6 +39,19 @@ public interface ClienteRepository extends CrudRepository<Cliente, Long> {
             " (LOWER(e.docRG) LIKE LOWER(CONCAT('%', :criteria, '%'))) )")
     Optional<Page<Cliente>> findByFiltro(@Param("criteria") String filtro, @Param("idEmpresa") Long idEmpresa, Pageable pageable);
 
+    /**
+     * Mesmo filtro de {@link #findByFiltro}, projetando apenas as colunas do relatório de clientes.
+     */
+    @Query(value = "SELECT new com.escola.admin.model.projection.cliente.ClienteRelatorio(" +
+            " e.id, e.nome, e.dataNascimento, e.docCPF, e.docRG, e.endereco, e.email, e.profissao," +
+            " e.localTrabalho, e.statusCliente) " + FILTRO_RELATORIO + PROXIMA_PAGINA_RELATORIO)
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar colunas do relatório de clientes.")
+    })
+    List<ClienteRelatorio> findRelatorioByFiltro(@Param("criteria") String filtro, @Param("idEmpresa") Long idEmpresa, @Param("ultimoId") Long ultimoId, Pageable pageable);
+
     @Query("SELECT e FROM Cliente e " +
             " WHERE e.empresa.id = :idEmpresa " +
             " AND e.statusCliente = :statusCliente " +
@@ -2,10 +2,13 @@ package com.escola.admin.repository.cliente;
 
 import com.escola.admin.model.entity.cliente.ContaReceber;
 import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.projection.cliente.VencimentoEmpresa;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
@@ -28,31 +31,31 @@ public interface ContaReceberRepository extends JpaRepository<ContaReceber, Long
     })
     Optional<List<ContaReceber>> findByIdContrato(@Param("idContrato") Long idCntrato);
 
-    @Query(value = "SELECT cr FROM ContaReceber cr " +
-            "JOIN FETCH cr.contrato c " +
-            "WHERE cr.dataVencimento BETWEEN :inicioDoMes AND :fimDoMes " +
-            "AND c.statusContrato IN :statusContrato")
-    @QueryHints(value = {
-            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
-            @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"),
-            @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-            @QueryHint(name = "org.hibernate.comment", value = "Recupera todas as contas a receber de contratos ativos em um determinado mês e ano.")
-    })
-    Optional<List<ContaReceber>> findByMesAndContratoStatus(
-            @Param("inicioDoMes") java.time.LocalDate inicioDoMes,
-            @Param("fimDoMes") java.time.LocalDate fimDoMes,
-            @Param("statusContrato") Collection<StatusContrato> statusContratos
-    );
+    /**
+     * Carrega a parcela com lock de escrita ({@code SELECT ... FOR UPDATE}) até o fim da transação:
+     * alterações e exclusões simultâneas da mesma parcela são serializadas e cada uma parte do valor pago já gravado.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT cr FROM ContaReceber cr WHERE cr.id = :id")
+    Optional<ContaReceber> findByIdParaAtualizacao(@Param("id") Long id);
+
+    @Query(value = "SELECT DISTINCT cr.dataVencimento FROM ContaReceber cr WHERE cr.contrato.id = :idContrato")
+    List<java.time.LocalDate> findDatasVencimentoByIdContrato(@Param("idContrato") Long idContrato);
+
+    @Query(value = "SELECT DISTINCT new com.escola.admin.model.projection.cliente.VencimentoEmpresa(c.empresa.id, cr.dataVencimento) " +
+            "FROM ContaReceber cr JOIN cr.contrato c " +
+            "WHERE c.matricula.id = :idMatricula")
+    List<VencimentoEmpresa> findVencimentosByIdMatricula(@Param("idMatricula") Long idMatricula);
 
     @Query(value = "SELECT cr FROM ContaReceber cr " +
-            "JOIN FETCH cr.contrato c " +
+            "JOIN cr.contrato c " +
             "WHERE cr.dataVencimento BETWEEN :inicioDoMes AND :fimDoMes " +
             "AND c.statusContrato IN :statusContrato")
     @QueryHints(value = {
             @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
             @QueryHint(name = "jakarta.persistence.cache.retrieveMode", value = "USE"),
             @QueryHint(name = "jakarta.persistence.cache.storeMode", value = "USE"),
-            @QueryHint(name = "org.hibernate.comment", value = "Recupera todas as contas a receber de contratos ativos em um determinado mês e ano.")
+            @QueryHint(name = "org.hibernate.comment", value = "Recupera a página de contas a receber do mês (contrato e cliente são carregados em lote).")
     })
     Optional<Page<ContaReceber>> findByDataRef(
             @Param("inicioDoMes") java.time.LocalDate inicioDoMes,
@@ -2,23 +2,42 @@ package com.escola.admin.repository.cliente;
 
 import com.escola.admin.model.entity.cliente.Contrato;
 import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.projection.cliente.ContratoParcelamento;
+import com.escola.admin.model.projection.cliente.ContratoRelatorio;
+import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
 public interface ContratoRepository extends JpaRepository<Contrato, Long> {
 
+    String FILTRO_RELATORIO = "FROM Contrato e " +
+            " JOIN e.cliente cli " +
+            " WHERE e.empresa.id = :idEmpresa " +
+            " AND (:status IS NULL OR e.statusContrato in :status) " +
+            " AND ( (:criteria IS NULL OR :criteria = '') OR " +
+            " (LOWER(e.numeroContrato) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(cli.nome) LIKE LOWER(CONCAT('%', :criteria, '%')) ) OR " +
+            " (LOWER(FUNCTION('TO_CHAR', e.dataInicio, 'DD/MM/YYYY')) LIKE LOWER(CONCAT('%', :criteria, '%'))) OR" +
+            " (LOWER(FUNCTION('TO_CHAR', e.dataInicio, 'MM/YYYY')) LIKE LOWER(CONCAT('%', :criteria, '%'))) OR" +
+            " (LOWER(FUNCTION('TO_CHAR', e.dataInicio, 'YYYY')) LIKE LOWER(CONCAT('%', :criteria, '%'))) )";
+
+    String PROXIMA_PAGINA_RELATORIO = " AND e.id > :ultimoId ORDER BY e.id";
+
     @Query(value = "SELECT e FROM Contrato e " +
             " WHERE e.empresa.id = :idEmpresa " +
             " AND (:status IS NULL OR e.statusContrato in :status) " + // <-- This line was added
@@ -40,6 +59,35 @@ public interface ContratoRepository extends JpaRepository<Contrato, Long> {
                                           @Param("status") List<StatusContrato> status, // <-- @Param added
                                           Pageable pageable);
 
+    /**
+     * Mesmo filtro de {@link #findByFiltro}, projetando apenas as colunas do relatório de contratos.
+     */
+    @Query(value = "SELECT new com.escola.admin.model.projection.cliente.ContratoRelatorio(" +
+            " e.id, e.numeroContrato, cli.nome, e.dataInicio, e.dataFim, e.valorTotal, e.statusContrato," +
+            " e.periodoPagamento, e.observacoes) " + FILTRO_RELATORIO + PROXIMA_PAGINA_RELATORIO)
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar colunas do relatório de contratos.")
+    })
+    List<ContratoRelatorio> findRelatorioByFiltro(@Param("criteria") String filtro,
+                                                  @Param("idEmpresa") Long idEmpresa,
+                                                  @Param("status") List<StatusContrato> status,
+                                                  @Param("ultimoId") Long ultimoId,
+                                                  Pageable pageable);
+
+    /**
+     * Carrega vários contratos de uma vez, já com o cliente, para resolvedores em lote (DataLoader).
+     */
+    @Query(value = "SELECT e FROM Contrato e " +
+            " JOIN FETCH e.cliente " +
+            " WHERE e.id IN :ids")
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar contratos (com cliente) por uma lista de IDs.")
+    })
+    List<Contrato> findAllComClienteByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query(value = "SELECT e FROM Contrato e " +
             " WHERE e.matricula.id = :idMatricula ")
     Optional<Contrato> findByIdMatricula(@Param("idMatricula") Long idMatricula);
@@ -63,4 +111,46 @@ public interface ContratoRepository extends JpaRepository<Contrato, Long> {
             "JOIN t.curso cr " +
             "WHERE c.id = :idContrato")
     Optional<BigDecimal> findValorMensalidadeByContratoId(@Param("idContrato") Long idContrato);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Contrato c SET c.totalPago = c.totalPago + :delta WHERE c.id = :idContrato")
+    int somarTotalPago(@Param("idContrato") Long idContrato, @Param("delta") BigDecimal delta);
+
+    /**
+     * Carrega o contrato com lock de escrita ({@code SELECT ... FOR UPDATE}) até o fim da transação: o total pago
+     * lido e o status decidido a partir dele não mudam até o commit. Usado na transação que grava a parcela.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Contrato c WHERE c.id = :idContrato")
+    Optional<Contrato> findByIdParaAtualizacao(@Param("idContrato") Long idContrato);
+
+    /**
+     * Próximo bloco de contratos da empresa que ainda não possuem parcelas, para a geração em lote.
+     * Paginação por chave (id > :ultimoId ORDER BY id): cada bloco custa o mesmo, independentemente
+     * de quantos já foram processados, e contratos que ganham parcelas no caminho não deslocam a página.
+     */
+    @Query("SELECT new com.escola.admin.model.projection.cliente.ContratoParcelamento(" +
+            " c.id, c.numeroContrato, c.empresa.id, c.valorTotal, c.desconto, cr.valorMensalidade) " +
+            "FROM Contrato c " +
+            "JOIN c.matricula m " +
+            "JOIN m.turma t " +
+            "JOIN t.curso cr " +
+            "WHERE c.empresa.id = :idEmpresa " +
+            " AND c.id > :ultimoId " +
+            " AND c.statusContrato IN :status " +
+            " AND (:idTurma IS NULL OR t.id = :idTurma) " +
+            " AND (:idCurso IS NULL OR cr.id = :idCurso) " +
+            " AND NOT EXISTS (SELECT 1 FROM ContaReceber conta WHERE conta.contrato.id = c.id) " +
+            "ORDER BY c.id")
+    @QueryHints(value = {
+            @QueryHint(name = "javax.persistence.query.timeout", value = "5000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true"),
+            @QueryHint(name = "org.hibernate.comment", value = "Recuperar bloco de contratos sem parcelas para geração em lote.")
+    })
+    List<ContratoParcelamento> findSemParcelasAposId(@Param("idEmpresa") Long idEmpresa,
+                                                     @Param("idTurma") Long idTurma,
+                                                     @Param("idCurso") Long idCurso,
+                                                     @Param("status") Collection<StatusContrato> status,
+                                                     @Param("ultimoId") Long ultimoId,
+                                                     Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package com.escola.admin.repository.cliente;
+
+import com.escola.admin.model.entity.cliente.ResumoContaReceberMes;
+import com.escola.admin.model.entity.cliente.ResumoContaReceberMesId;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collection;
+import java.util.Objects;
+
+
+public interface ResumoContaReceberMesRepository extends JpaRepository<ResumoContaReceberMes, ResumoContaReceberMesId> {
+
+    /**
+     * Segunda chave dos locks que abrangem a empresa inteira. Os locks de mês usam {@code ano * 12 + mês}, sempre maior que zero.
+     */
+    int CHAVE_EMPRESA = 0;
+
+    /**
+     * Primeira chave do lock que abrange todas as empresas (reconstrução completa).
+     */
+    int CHAVE_TODAS = 0;
+
+    /**
+     * Recalcula um único mês de uma empresa a partir de tb_conta_receber e grava o resultado (upsert).
+     * <p>
+     * Recálculos do mesmo (empresa, mês) são serializados por um advisory lock de transação: sem ele, em
+     * READ COMMITTED, um recálculo cujo SELECT viu um estado mais antigo poderia gravar por último e sobrescrever
+     * totais mais novos. Com o lock, o upsert só roda depois do commit do anterior e o lê (novo snapshot).
+     * Também são tomados, em modo compartilhado, os locks da empresa e de todas as empresas, que a
+     * {@link #reconstruir(Long, Collection)} toma em modo exclusivo.
+     * <p>
+     * Chamado dentro da transação que alterou as parcelas, o lock fica retido até o commit dela.
+     */
+    @Transactional
+    default void recalcularMes(Long idEmpresa, LocalDate inicioDoMes, LocalDate fimDoMes, Collection<String> statusContrato) {
+        int chaveEmpresa = Long.hashCode(idEmpresa);
+        bloquearCompartilhado(CHAVE_TODAS, CHAVE_EMPRESA);
+        bloquearCompartilhado(chaveEmpresa, CHAVE_EMPRESA);
+        bloquear(chaveEmpresa, inicioDoMes.getYear() * 12 + inicioDoMes.getMonthValue());
+        upsertMes(idEmpresa, inicioDoMes, fimDoMes, statusContrato);
+    }
+
+    /**
+     * Recalcula os meses das datas informadas, em ordem crescente (mesma ordem de aquisição dos locks em todas as
+     * transações, evitando deadlock entre elas).
+     */
+    @Transactional
+    default void recalcularMeses(Long idEmpresa, Collection<LocalDate> datas, Collection<String> statusContrato) {
+        datas.stream()
+                .filter(Objects::nonNull)
+                .map(data -> data.with(TemporalAdjusters.firstDayOfMonth()))
+                .distinct()
+                .sorted()
+                .forEach(mes -> recalcularMes(idEmpresa, mes, mes.with(TemporalAdjusters.lastDayOfMonth()), statusContrato));
+    }
+
+    /**
+     * Locks liberados no fim da transação. Colisões do hash apenas serializam chaves diferentes, sem erro.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:chave1, :chave2)", nativeQuery = true)
+    Integer bloquear(@Param("chave1") int chave1, @Param("chave2") int chave2);
+
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock_shared(:chave1, :chave2)", nativeQuery = true)
+    Integer bloquearCompartilhado(@Param("chave1") int chave1, @Param("chave2") int chave2);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_resumo_conta_receber_mes " +
+            " (id_empresa, mes_referencia, total_esperado, total_recebido, data_atualizacao) " +
+            " SELECT :idEmpresa, :inicioDoMes, COALESCE(SUM(cr.valor_total), 0), COALESCE(SUM(cr.valor_pago), 0), now() " +
+            " FROM tb_conta_receber cr " +
+            " JOIN tb_contrato c ON c.id = cr.id_contrato " +
+            " WHERE c.id_empresa = :idEmpresa " +
+            " AND cr.data_vencimanto BETWEEN :inicioDoMes AND :fimDoMes " +
+            " AND c.status_contrato IN (:statusContrato) " +
+            " ON CONFLICT (id_empresa, mes_referencia) DO UPDATE SET " +
+            " total_esperado = EXCLUDED.total_esperado, " +
+            " total_recebido = EXCLUDED.total_recebido, " +
+            " data_atualizacao = EXCLUDED.data_atualizacao",
+            nativeQuery = true)
+    void upsertMes(@Param("idEmpresa") Long idEmpresa,
+                   @Param("inicioDoMes") LocalDate inicioDoMes,
+                   @Param("fimDoMes") LocalDate fimDoMes,
+                   @Param("statusContrato") Collection<String> statusContrato);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_resumo_conta_receber_mes " +
+            " WHERE (CAST(:idEmpresa AS BIGINT) IS NULL OR id_empresa = :idEmpresa)",
+            nativeQuery = true)
+    void deleteByEmpresa(@Param("idEmpresa") Long idEmpresa);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_resumo_conta_receber_mes " +
+            " (id_empresa, mes_referencia, total_esperado, total_recebido, data_atualizacao) " +
+            " SELECT c.id_empresa, CAST(date_trunc('month', cr.data_vencimanto) AS DATE), " +
+            " SUM(cr.valor_total), COALESCE(SUM(cr.valor_pago), 0), now() " +
+            " FROM tb_conta_receber cr " +
+            " JOIN tb_contrato c ON c.id = cr.id_contrato " +
+            " WHERE (CAST(:idEmpresa AS BIGINT) IS NULL OR c.id_empresa = :idEmpresa) " +
+            " AND c.status_contrato IN (:statusContrato) " +
+            " GROUP BY c.id_empresa, CAST(date_trunc('month', cr.data_vencimanto) AS DATE) " +
+            " ON CONFLICT (id_empresa, mes_referencia) DO UPDATE SET " +
+            " total_esperado = EXCLUDED.total_esperado, " +
+            " total_recebido = EXCLUDED.total_recebido, " +
+            " data_atualizacao = EXCLUDED.data_atualizacao",
+            nativeQuery = true)
+    int inserirAgregadoPorMes(@Param("idEmpresa") Long idEmpresa,
+                              @Param("statusContrato") Collection<String> statusContrato);
+
+    /**
+     * Reconstrói o resumo de uma empresa (ou de todas, quando {@code idEmpresa} é nulo) em uma única transação.
+     * <p>
+     * O lock exclusivo da empresa (ou de todas) espera os recálculos em andamento e bloqueia os novos até o commit:
+     * um recálculo concorrente não grava entre o DELETE e o INSERT nem é sobrescrito por totais lidos antes dele.
+     *
+     * @return Quantidade de meses gravados.
+     */
+    @Transactional
+    default int reconstruir(Long idEmpresa, Collection<String> statusContrato) {
+        if (idEmpresa == null) {
+            bloquear(CHAVE_TODAS, CHAVE_EMPRESA);
+        } else {
+            bloquearCompartilhado(CHAVE_TODAS, CHAVE_EMPRESA);
+            bloquear(Long.hashCode(idEmpresa), CHAVE_EMPRESA);
+        }
+        deleteByEmpresa(idEmpresa);
+        return inserirAgregadoPorMes(idEmpresa, statusContrato);
+    }
+}
@@ -10,6 +10,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -37,6 +38,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
 
+    /**
+     * Quando habilitado, o principal é montado apenas a partir das claims do token, sem acesso ao banco.
+     * Mutações continuam sendo conferidas contra o banco pelo {@link PrincipalVerificationInterceptor}.
+     * <p>
+     * Trade-off: nas consultas, um usuário desativado ou removido mantém o acesso até o token expirar
+     * ({@code application.security.jwt.expiration}, 24 h por padrão), pois o status não é lido do banco.
+     */
+    @Value("${application.security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
     /**
      * Este método é invocado pelo Spring para decidir se o filtro deve ser aplicado
      * a uma determinada requisição. Se ele retornar 'true', o filtro é PULADO.
@@ -74,31 +85,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String jwt = authHeader.substring(7);
         String userEmail;
-        Long empresaId = null;
-        String empresaNome = null;
 
         try {
-            userEmail = jwtService.extractUsername(jwt);
-            empresaId = jwtService.getEmpresaIdFromToken(jwt);
-            empresaNome = jwtService.getEmpresaNomeFromToken(jwt);
+            // Assinatura verificada uma única vez; as claims seguem no objeto imutável.
+            JwtClaims claims = jwtService.parseToken(jwt);
+            userEmail = claims.username();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                UserDetails userDetails = statelessPrincipal && claims.suportaPrincipalSemEstado()
+                        ? claims.toPrincipal()
+                        : this.userDetailsService.loadUserByUsername(userEmail);
 
                 // --- NOVA LINHA: Definir o ID da empresa no UserDetails customizado ---
-                if (userDetails instanceof Usuario) { // Verifica se é a sua classe Usuario
-                    ((Usuario) userDetails).setEmpresaIdFromToken(empresaId);
-                    ((Usuario) userDetails).setEmpresaNomeFromToken(empresaNome);
-
-                    Boolean isImpersonated = jwtService.isImpersonated(jwt); // Crie este método em JwtService
-                    if (isImpersonated) {
-                        String impersonatorUsername = jwtService.getImpersonatorUsername(jwt); // Crie este método
-                        ((Usuario) userDetails).setImpersonatorUsername(impersonatorUsername); // Adicione o campo @Transient em Usuario
-                        log.info("Sessão de impersonação ativa. Usuário: {}, Impersonado por: {}", userEmail, impersonatorUsername);
+                if (userDetails instanceof Usuario usuario) { // Verifica se é a sua classe Usuario
+                    usuario.setEmpresaIdFromToken(claims.empresaId());
+                    usuario.setEmpresaNomeFromToken(claims.empresaNome());
+
+                    if (claims.impersonated()) {
+                        usuario.setImpersonatorUsername(claims.impersonatorUsername());
+                        log.info("Sessão de impersonação ativa. Usuário: {}, Impersonado por: {}", userEmail, claims.impersonatorUsername());
                     }
                 }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (jwtService.isTokenValid(claims, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
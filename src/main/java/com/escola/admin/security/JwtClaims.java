@@ -0,0 +1,96 @@
+package com.escola.admin.security;
+
+import com.escola.admin.model.entity.Role;
+import com.escola.admin.model.entity.Usuario;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Visão imutável das claims de um JWT já verificado.
+ * O token é validado (assinatura + formato) uma única vez em {@link JwtService#parseToken(String)}
+ * e este objeto circula pelo filtro, evitando novas passagens de HMAC para cada claim lida.
+ */
+public record JwtClaims(
+        String username,
+        Long userId,
+        String firstname,
+        String lastname,
+        List<String> authorities,
+        Long empresaId,
+        String empresaNome,
+        boolean impersonated,
+        String impersonatorUsername,
+        Date expiration
+) {
+
+    static JwtClaims from(Claims claims) {
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get("userId", Long.class),
+                claims.get("firstname", String.class),
+                claims.get("lastname", String.class),
+                extractAuthorities(claims),
+                claims.get("empresaId", Long.class),
+                claims.get("empresaNomeFantasia", String.class),
+                Boolean.TRUE.equals(claims.get("is_impersonated", Boolean.class)),
+                claims.get("impersonator_username", String.class),
+                claims.getExpiration()
+        );
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * Indica se o token carrega dados suficientes para montar o principal sem consultar o banco.
+     * Tokens emitidos antes da inclusão da claim {@code userId} retornam false.
+     */
+    public boolean suportaPrincipalSemEstado() {
+        return userId != null && authorities != null;
+    }
+
+    /**
+     * Monta um {@link Usuario} leve (não gerenciado pelo JPA) apenas com os dados do token.
+     * Usado no modo de principal sem estado; não possui senha nem a associação com {@code Empresa}.
+     * Os campos {@code @Transient} (empresa/impersonação) são preenchidos pelo filtro, como no modo padrão.
+     * <p>
+     * {@code enabled} é sempre true: o token não reflete desativações posteriores à emissão. O status real só é
+     * conferido nas mutações ({@link PrincipalVerificationInterceptor}); ver {@code JwtAuthenticationFilter#statelessPrincipal}.
+     */
+    public Usuario toPrincipal() {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        authorities.stream()
+                .filter(JwtClaims::isRole)
+                .map(Role::valueOf)
+                .forEach(roles::add);
+
+        return Usuario.builder()
+                .id(userId)
+                .username(username)
+                .firstname(firstname)
+                .lastname(lastname)
+                .enabled(true)
+                .roles(roles)
+                .build();
+    }
+
+    private static boolean isRole(String authority) {
+        for (Role role : Role.values()) {
+            if (role.name().equals(authority)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> extractAuthorities(Claims claims) {
+        Object authorities = claims.get("authorities");
+        return authorities instanceof List<?> lista ? List.copyOf((List<String>) lista) : null;
+    }
+}
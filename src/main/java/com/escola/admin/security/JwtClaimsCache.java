@@ -0,0 +1,75 @@
+package com.escola.admin.security;
+
+import com.escola.admin.util.HashUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cache local de tokens já verificados: digest SHA-256 do token -> claims.
+ * <p>
+ * Cada entrada expira exatamente no {@code exp} do próprio token, e o cache é limitado por tamanho.
+ * Assim, um token repetido pela mesma sessão do SPA custa apenas um hash + lookup, sem nova verificação HMAC.
+ * As métricas de acerto/falha são publicadas no Micrometer com o nome {@code jwt.claims}.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final Cache<String, JwtClaims> cache;
+
+    public JwtClaimsCache(
+            @Value("${application.security.jwt.cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ExpiraNoExp())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.claims");
+    }
+
+    /**
+     * Retorna as claims do token, verificando-o apenas na primeira vez em que é visto.
+     * Exceções de verificação (token expirado, assinatura inválida) são propagadas e nada é armazenado.
+     */
+    public JwtClaims get(String token, Function<String, JwtClaims> verificador) {
+        String chave = HashUtils.sha256Hex(token);
+        JwtClaims claims = cache.get(chave, k -> verificador.apply(token));
+        if (claims.isExpired()) {
+            // Precisão do relógio do cache: nunca devolver um token vencido.
+            cache.invalidate(chave);
+            return verificador.apply(token);
+        }
+        return claims;
+    }
+
+    private static class ExpiraNoExp implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            if (claims.expiration() == null) {
+                return 0L;
+            }
+            long restanteMillis = claims.expiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(restanteMillis, 0L));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
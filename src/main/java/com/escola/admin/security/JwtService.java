@@ -3,9 +3,12 @@ package com.escola.admin.security;
 import com.escola.admin.model.entity.Empresa;
 import com.escola.admin.model.entity.Usuario;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -21,14 +24,43 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    private final JwtClaimsCache claimsCache;
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${application.security.jwt.expiration}")
     private long jwtExpiration;
 
+    // Chave e parser são imutáveis e thread-safe: construídos uma única vez na inicialização.
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+    }
+
+    /**
+     * Verifica a assinatura do token e extrai todas as claims relevantes de uma só vez.
+     * Tokens já verificados são servidos pelo {@link JwtClaimsCache} até o seu {@code exp}
+     * (inclusive os tokens de impersonação, que carregam as mesmas claims).
+     *
+     * @param token O JWT.
+     * @return As claims já verificadas.
+     * @throws io.jsonwebtoken.JwtException se o token for inválido ou estiver expirado.
+     */
+    public JwtClaims parseToken(String token) {
+        return claimsCache.get(token, t -> JwtClaims.from(extractAllClaims(t)));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -45,6 +77,7 @@ public class JwtService {
                 .map(GrantedAuthority::getAuthority) // Simplificado o map
                 .collect(Collectors.toList());
         extraClaims.put("authorities", authorities);
+        addUsuarioClaims(extraClaims, userDetails);
 
         // --- ADICIONANDO OS DADOS DA EMPRESA COMO CLAIMS ---
         Empresa empresa = userDetails.getEmpresa();
@@ -70,9 +103,22 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Dados do usuário embutidos no token para permitir o principal sem estado
+     * (ver {@link JwtClaims#toPrincipal()}).
+     */
+    private void addUsuarioClaims(Map<String, Object> extraClaims, Usuario usuario) {
+        extraClaims.put("userId", usuario.getId());
+        extraClaims.put("firstname", usuario.getFirstname());
+        extraClaims.put("lastname", usuario.getLastname());
+    }
+
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
+    }
+
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        return claims.username().equals(userDetails.getUsername()) && !claims.isExpired();
     }
 
     public Long getEmpresaIdFromToken(String token) {
@@ -83,25 +129,14 @@ public class JwtService {
         return extractClaim(token, claims -> claims.get("empresaNomeFantasia", String.class));
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
 
     /**
@@ -117,11 +152,13 @@ public class JwtService {
         extraClaims.put("authorities", authorities);
 
         // Claims padrão para o usuário-alvo
-        if (targetUser instanceof Usuario) {
-            Empresa empresa = ((Usuario) targetUser).getEmpresa();
+        if (targetUser instanceof Usuario usuario) {
+            addUsuarioClaims(extraClaims, usuario);
+            Empresa empresa = usuario.getEmpresa();
             if (empresa != null) {
                 extraClaims.put("empresaId", empresa.getId());
                 extraClaims.put("empresaNome", empresa.getNomeFantasia());
+                extraClaims.put("empresaNomeFantasia", empresa.getNomeFantasia());
             }
         }
 
@@ -146,9 +183,7 @@ public class JwtService {
      */
     public Boolean isImpersonated(String token) {
         try {
-            final Claims claims = extractAllClaims(token);
-            Boolean isImpersonated = claims.get("is_impersonated", Boolean.class);
-            return Boolean.TRUE.equals(isImpersonated);
+            return parseToken(token).impersonated();
         } catch (Exception e) {
             return false;
         }
@@ -0,0 +1,102 @@
+package com.escola.admin.security;
+
+import com.escola.admin.model.entity.Usuario;
+import com.escola.admin.repository.UsuarioRepository;
+import graphql.language.Document;
+import graphql.language.OperationDefinition;
+import graphql.parser.Parser;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * Complemento do modo de principal sem estado ({@code application.security.jwt.stateless-principal}).
+ * <p>
+ * Consultas (queries) rodam apenas com os dados do token. Para mutações, o usuário é lido direto do
+ * {@link UsuarioRepository}, sem passar pelo {@link UsuarioDetailsCache}, e o principal do contexto é substituído
+ * pelo do banco: toda mutação vê o estado já gravado do usuário, então roles alteradas valem e usuários removidos ou
+ * desativados são recusados a partir da mutação seguinte à alteração, em qualquer nó.
+ * <p>
+ * Consultas não passam por essa verificação: um usuário desativado ou removido continua com acesso de leitura até o
+ * token expirar ({@code application.security.jwt.expiration}). Esse é o custo assumido ao habilitar o modo sem estado.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PrincipalVerificationInterceptor implements WebGraphQlInterceptor {
+
+    private final UsuarioRepository usuarioRepository;
+
+    @Value("${application.security.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    @Override
+    @NonNull
+    public Mono<WebGraphQlResponse> intercept(@NonNull WebGraphQlRequest request, @NonNull Chain chain) {
+        if (statelessPrincipal && isMutation(request)) {
+            verificarPrincipal();
+        }
+        return chain.next(request);
+    }
+
+    private void verificarPrincipal() {
+        SecurityContext context = SecurityContextHolder.getContext();
+        Authentication authentication = context.getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Usuario principalToken)) {
+            return;
+        }
+
+        Optional<Usuario> encontrado = usuarioRepository.findByUsername(principalToken.getUsername());
+        if (encontrado.isEmpty()) {
+            // Mesmo comportamento do modo padrão: token válido de um usuário que não existe mais.
+            log.warn("Mutação recusada: usuário '{}' do token não existe mais.", principalToken.getUsername());
+            context.setAuthentication(null);
+            return;
+        }
+        // Mesma forma do principal entregue pelo cache (sem o proxy LAZY da empresa).
+        Usuario usuarioBanco = UsuarioDetailsCache.copiar(encontrado.get());
+        if (!usuarioBanco.isEnabled()) {
+            log.warn("Mutação recusada: usuário '{}' está desativado.", principalToken.getUsername());
+            context.setAuthentication(null);
+            return;
+        }
+        usuarioBanco.setEmpresaIdFromToken(principalToken.getEmpresaIdFromToken());
+        usuarioBanco.setEmpresaNomeFromToken(principalToken.getEmpresaNomeFromToken());
+        usuarioBanco.setImpersonatorUsername(principalToken.getImpersonatorUsername());
+
+        UsernamePasswordAuthenticationToken verificado = new UsernamePasswordAuthenticationToken(
+                usuarioBanco,
+                null,
+                usuarioBanco.getAuthorities()
+        );
+        verificado.setDetails(authentication.getDetails());
+        context.setAuthentication(verificado);
+    }
+
+    private boolean isMutation(WebGraphQlRequest request) {
+        try {
+            Document document = Parser.parse(request.getDocument());
+            String operationName = request.getOperationName();
+            return document.getDefinitionsOfType(OperationDefinition.class).stream()
+                    .filter(op -> operationName == null || operationName.equals(op.getName()))
+                    .findFirst()
+                    .map(op -> op.getOperation() == OperationDefinition.Operation.MUTATION)
+                    .orElse(false);
+        } catch (Exception e) {
+            // Documento inválido: a própria execução do GraphQL reportará o erro de sintaxe.
+            return false;
+        }
+    }
+}
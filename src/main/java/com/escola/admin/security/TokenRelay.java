@@ -0,0 +1,39 @@
+package com.escola.admin.security;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+
+/**
+ * Repasse do token do usuário para as chamadas ao util-service.
+ * <p>
+ * O token viaja no {@link Context} do Reactor: quem inicia a chamada remota grava o token
+ * ({@code .contextWrite(TokenRelay.comToken(...))}) e o filtro do WebClient o lê no momento da requisição,
+ * em qualquer thread em que ela aconteça.
+ */
+public interface TokenRelay {
+
+    String CHAVE_TOKEN = TokenRelay.class.getName() + ".token";
+
+    /**
+     * Contexto com o token informado; aceita o valor do cabeçalho {@code Authorization} com ou sem o prefixo
+     * {@code Bearer}. Token nulo ou vazio resulta em contexto vazio.
+     */
+    static Context comToken(String token) {
+        String bearer = semPrefixo(token);
+        return bearer == null ? Context.empty() : Context.of(CHAVE_TOKEN, bearer);
+    }
+
+    static Optional<String> doContexto(ContextView contexto) {
+        return contexto.getOrEmpty(CHAVE_TOKEN);
+    }
+
+    static String semPrefixo(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String prefixo = "Bearer ";
+        return token.regionMatches(true, 0, prefixo, 0, prefixo.length()) ? token.substring(prefixo.length()) : token;
+    }
+}
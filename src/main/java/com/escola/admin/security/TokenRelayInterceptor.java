@@ -0,0 +1,25 @@
+package com.escola.admin.security;
+
+import org.springframework.graphql.server.WebGraphQlInterceptor;
+import org.springframework.graphql.server.WebGraphQlRequest;
+import org.springframework.graphql.server.WebGraphQlResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Grava o token da requisição GraphQL no contexto do Reactor ({@link TokenRelay}). O Spring GraphQL repassa
+ * esse contexto aos {@code Mono}/{@code Flux} retornados pelos controllers, então as chamadas ao util-service
+ * feitas a partir deles levam o token em qualquer thread ou scheduler em que executem.
+ */
+@Component
+public class TokenRelayInterceptor implements WebGraphQlInterceptor {
+
+    @Override
+    @NonNull
+    public Mono<WebGraphQlResponse> intercept(@NonNull WebGraphQlRequest request, @NonNull Chain chain) {
+        return chain.next(request)
+                .contextWrite(TokenRelay.comToken(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION)));
+    }
+}
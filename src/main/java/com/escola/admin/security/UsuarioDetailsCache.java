@@ -0,0 +1,89 @@
+package com.escola.admin.security;
+
+import com.escola.admin.model.entity.Usuario;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache local (por nó) dos usuários carregados pelo {@code UserDetailsService}.
+ * <p>
+ * Evita um acesso ao banco a cada requisição autenticada. As entradas expiram após um TTL curto
+ * e são invalidadas explicitamente sempre que senha, roles ou dados do usuário mudam
+ * (ver {@code UsuarioServiceImpl}).
+ * <p>
+ * O filtro JWT preenche campos {@code @Transient} do principal a cada requisição; por isso o cache
+ * nunca entrega a instância armazenada, e sim uma cópia própria para cada chamada.
+ * <p>
+ * A cópia não leva a {@code empresa}: o usuário em cache foi carregado em uma sessão já encerrada e a associação
+ * é um proxy LAZY, que lançaria {@code LazyInitializationException} em um acerto de cache. O principal usa
+ * {@code empresaIdFromToken}/{@code empresaNomeFromToken}; quem precisa da empresa a busca pelo repositório.
+ */
+@Component
+@Slf4j
+public class UsuarioDetailsCache {
+
+    private final Cache<String, Usuario> cache;
+
+    public UsuarioDetailsCache(
+            @Value("${application.security.user-cache.ttl:PT5M}") Duration ttl,
+            @Value("${application.security.user-cache.max-size:5000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "usuario.details");
+    }
+
+    /**
+     * Busca o usuário no cache ou, na ausência, através do {@code loader} (consulta ao banco).
+     */
+    public Optional<Usuario> get(String username, Function<String, Optional<Usuario>> loader) {
+        Usuario usuario = cache.get(username, k -> loader.apply(k).orElse(null));
+        return Optional.ofNullable(usuario).map(UsuarioDetailsCache::copiar);
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+            log.debug("Usuário '{}' removido do cache de autenticação.", username);
+        }
+    }
+
+    /**
+     * Invalida pelo ID; cobre o caso em que o próprio username foi alterado.
+     */
+    public void invalidateById(Long id) {
+        if (id != null) {
+            cache.asMap().values().removeIf(usuario -> id.equals(usuario.getId()));
+        }
+    }
+
+    static Usuario copiar(Usuario origem) {
+        return Usuario.builder()
+                .id(origem.getId())
+                .username(origem.getUsername())
+                .password(origem.getPassword())
+                .firstname(origem.getFirstname())
+                .lastname(origem.getLastname())
+                .email(origem.getEmail())
+                .enabled(origem.isEnabled())
+                .precisaAlterarSenha(origem.isPrecisaAlterarSenha())
+                .dataCadastro(origem.getDataCadastro())
+                .dataAtualizacao(origem.getDataAtualizacao())
+                .roles(new HashSet<>(origem.getRoles()))
+                .build();
+    }
+}
@@ -1,5 +1,8 @@
 package com.escola.admin.service;
 
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface FileStorageService {
@@ -9,4 +12,17 @@ public interface FileStorageService {
     Mono<Boolean> deleteFile(String uuid);
 
     Mono<String> getFileAsBase64(String uuid);
+
+    /**
+     * Envia o arquivo ao util-service em multipart, lendo o conteúdo em blocos. Retorna o UUID do arquivo salvo.
+     *
+     * @param nomeArquivo nome enviado no multipart; também define o tipo de conteúdo.
+     */
+    Mono<String> saveFile(Resource conteudo, String nomeArquivo);
+
+    /**
+     * Conteúdo binário do arquivo, em blocos. Quem consome deve liberar cada {@link DataBuffer}
+     * (ex.: {@code DataBufferUtils.write(...).map(DataBufferUtils::release)}).
+     */
+    Flux<DataBuffer> getFile(String uuid);
 }
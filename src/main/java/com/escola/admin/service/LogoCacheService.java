@@ -0,0 +1,38 @@
+package com.escola.admin.service;
+
+import com.escola.admin.model.entity.Logo;
+import com.itextpdf.io.image.ImageData;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache local (por nó) dos logos das empresas, usados no cabeçalho dos relatórios e nas respostas de
+ * login/impersonação. Evita buscar o arquivo no serviço de arquivos e decodificar a imagem a cada uso.
+ */
+public interface LogoCacheService {
+
+    /**
+     * Logo pronto para uso.
+     *
+     * @param base64 conteúdo do arquivo, como retornado pelo serviço de arquivos.
+     * @param imagem imagem já decodificada para o iText; {@code null} se o formato não for suportado.
+     */
+    record LogoEmpresa(
+            String uuid,
+            String hash,
+            String mimeType,
+            String base64,
+            ImageData imagem
+    ) {
+    }
+
+    /**
+     * Busca o logo no cache ou, na ausência, no serviço de arquivos. Vazio se {@code logo} for nulo.
+     * Chamadas simultâneas para o mesmo logo compartilham a mesma busca.
+     */
+    Mono<LogoEmpresa> buscar(Logo logo);
+
+    /**
+     * Remove o logo do cache (ex.: ao trocar o logo da empresa).
+     */
+    void invalidar(Logo logo);
+}
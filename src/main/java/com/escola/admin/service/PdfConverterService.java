@@ -5,4 +5,11 @@ import java.io.IOException;
 public interface PdfConverterService {
 
     String convertHtmlToPdfBase64(String htmlContent) throws IOException;
+
+    byte[] convertHtmlToPdf(String htmlContent) throws IOException;
+
+    /**
+     * Identifica a folha de estilo aplicada na conversão: o mesmo HTML com outra versão gera outro PDF.
+     */
+    String versaoEstilo();
 }
@@ -242,9 +242,8 @@ public class TurmaServiceImpl implements TurmaService {
     }
 
     public Mono<RelatorioBase64Response> emitirRelatorio(FiltroRelatorioRequest request, Usuario usuario) {
-        Mono<Page<Turma>> turmasMono = Mono.justOrEmpty(findByFiltro(request.filtro(), null, usuario.getEmpresaIdFromToken(), null));
         return relatorioBaseService.emitirRelatorioGenerico(
-                turmasMono,
+                (ultimoId, pagina) -> repository.findRelatorioByFiltro(request.filtro(), usuario.getEmpresaIdFromToken(), ultimoId, pagina),
                 request,
                 usuario,
                 "Relatório de turmas", // Subtítulo
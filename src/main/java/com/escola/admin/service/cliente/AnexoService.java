@@ -4,14 +4,32 @@ package com.escola.admin.service.cliente;
 import com.escola.admin.model.entity.cliente.Anexo;
 import com.escola.admin.model.request.cliente.AnexoRequest;
 import com.escola.admin.model.response.cliente.AnexoBase64Response;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
 
 public interface AnexoService {
 
+    /**
+     * Arquivo do anexo pronto para ser transmitido: o conteúdo só é buscado no serviço de arquivos
+     * quando o {@code conteudo} é assinado.
+     */
+    record ArquivoAnexo(
+            String nomeArquivo,
+            Flux<DataBuffer> conteudo
+    ) {
+    }
+
     Mono<Anexo> save(AnexoRequest request);
 
+    /**
+     * Mesmo que {@link #save(AnexoRequest)}, recebendo o arquivo binário (upload multipart) em vez de base64.
+     */
+    Mono<Anexo> upload(Long idContrato, String nomeArquivo, Resource conteudo);
+
     Mono<Anexo> findById(Long id);
 
     Mono<List<Anexo>> findByIdContrato(Long idContrato);
@@ -20,4 +38,6 @@ public interface AnexoService {
 
     Mono<AnexoBase64Response> downloadAnexo(Long id);
 
+    Mono<ArquivoAnexo> abrirArquivo(Long id);
+
 }
@@ -1,7 +1,9 @@
 package com.escola.admin.service.cliente;
 
 import com.escola.admin.model.entity.cliente.ContaReceber;
+import com.escola.admin.model.request.cliente.ContaReceberLoteRequest;
 import com.escola.admin.model.request.cliente.ContaReceberRequest;
+import com.escola.admin.model.response.cliente.ContaReceberLoteResponse;
 import com.escola.admin.model.response.cliente.ContaReceberPorMesDetalheResponse;
 import com.escola.admin.model.response.cliente.ContaReceberPorMesResumeResponse;
 import org.springframework.data.domain.Page;
@@ -22,13 +24,15 @@ public interface ContaReceberService {
 
     Mono<Void> criar(Long id);
 
+    Mono<ContaReceberLoteResponse> criarEmLote(ContaReceberLoteRequest request, Long idEmpresa);
+
     Mono<Void> deleteById(Long id);
 
     Mono<Void> delete(ContaReceber entity);
 
     Mono<Void> deletarContaEAtualizarContrato(Long id);
 
-    Mono<ContaReceberPorMesResumeResponse> fetchResumoByMes(LocalDate dataRef);
+    Mono<ContaReceberPorMesResumeResponse> fetchResumoByMes(LocalDate dataRef, Long idEmpresa);
 
     Optional<Page<ContaReceberPorMesDetalheResponse>> findByDataRef(LocalDate dataRef, Pageable pageable);
 }
@@ -0,0 +1,22 @@
+package com.escola.admin.service.cliente;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache local (por nó) dos PDFs gerados a partir do documento dos contratos. A chave é o hash do
+ * {@code contratoDoc} mais a versão da folha de estilo: o mesmo conteúdo nunca é convertido duas vezes e
+ * um documento alterado (ou um CSS novo) gera outra chave.
+ */
+public interface ContratoPdfCacheService {
+
+    /**
+     * Retorna o PDF do documento, convertendo-o apenas se não estiver no cache. A conversão roda no pool de
+     * renderização; chamadas simultâneas para o mesmo conteúdo aguardam a mesma conversão.
+     */
+    Mono<byte[]> buscarOuGerar(Long idContrato, String contratoDoc);
+
+    /**
+     * Remove o PDF do último documento baixado do contrato (ex.: ao salvar ou regerar o documento).
+     */
+    void invalidar(Long idContrato);
+}
@@ -3,9 +3,10 @@ package com.escola.admin.service.cliente;
 
 import com.escola.admin.model.entity.Usuario;
 import com.escola.admin.model.entity.auxiliar.Matricula;
-import com.escola.admin.model.entity.cliente.ContaReceber;
 import com.escola.admin.model.entity.cliente.Contrato;
 import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.projection.cliente.ContratoParcelamento;
+import com.escola.admin.model.request.cliente.ContaReceberLoteRequest;
 import com.escola.admin.model.request.cliente.ContratoModeloRequest;
 import com.escola.admin.model.request.cliente.ContratoRequest;
 import com.escola.admin.model.request.report.FiltroRelatorioRequest;
@@ -16,6 +17,7 @@ import org.springframework.data.domain.Pageable;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +32,8 @@ public interface ContratoService {
 
     Mono<Contrato> findById(Long id);
 
+    Mono<List<Contrato>> findAllComClienteByIds(Collection<Long> ids);
+
     Optional<Void> deleteById(Integer id);
 
     Mono<Contrato> parseContrato(Long idContrato, Long empresaIdFromToken);
@@ -44,9 +48,11 @@ public interface ContratoService {
 
     Mono<BigDecimal> getValorMensalidadePorContratoId(Long idContrato);
 
+    Mono<List<ContratoParcelamento>> findSemParcelas(Long idEmpresa, ContaReceberLoteRequest filtro, Long ultimoId, int tamanhoLote);
+
     Mono<ContratoBase64Response> downloadDocContrato(Long id);
 
     Mono<RelatorioBase64Response> emitirRelatorio(FiltroRelatorioRequest request, List<StatusContrato> status, Usuario empresaIdFromToken);
 
-    Mono<Void> alterarStatus(Contrato contrato, List<ContaReceber> contasReceber);
+    Mono<Void> statusAlterado(Contrato contrato, StatusContrato novoStatus);
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.escola.admin.service.cliente;
+
+import com.escola.admin.model.response.cliente.ContaReceberPorMesResumeResponse;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface ResumoContaReceberService {
+
+    Mono<ContaReceberPorMesResumeResponse> findByMes(LocalDate dataRef, Long idEmpresa);
+
+    Mono<Integer> reconstruir(Long idEmpresa);
+}
@@ -13,6 +13,7 @@ import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
@@ -46,6 +47,28 @@ public class AnexoServiceImpl implements AnexoService {
 
     }
 
+    @Override
+    public Mono<Anexo> upload(Long idContrato, String nomeArquivo, Resource conteudo) {
+        log.info("Upload de anexo do contrato: {}", idContrato);
+
+        if (idContrato == null) {
+            return Mono.error(new BaseException("O ID do contrato é obrigatório."));
+        }
+        return contratoService.findById(idContrato)
+                .switchIfEmpty(Mono.error(new BaseException("Contrato não encontrado com o ID: " + idContrato)))
+                .flatMap(contrato -> storageService.saveFile(conteudo, nomeArquivo)
+                        .map(uuid -> Anexo.builder()
+                                .nomeArquivo(nomeArquivo)
+                                .uuid(uuid)
+                                .contrato(contrato)
+                                .build()))
+                .flatMap(this::persistAnexo)
+                .doOnSuccess(savedEntity -> log.info("Anexo salvo com sucesso. ID: {}", savedEntity.getId()))
+                .doOnError(e -> log.error("Falha no upload do anexo: {}", e.getMessage(), e))
+                .onErrorMap(DataIntegrityViolationException.class, this::handleDataIntegrityViolation)
+                .onErrorMap(e -> !(e instanceof BaseException), BaseException::handleGenericException);
+    }
+
     private Mono<Anexo> persistAnexo(Anexo anexo) {
         return Mono.fromCallable(() -> repository.save(anexo)).subscribeOn(Schedulers.boundedElastic());
     }
@@ -156,6 +179,16 @@ public class AnexoServiceImpl implements AnexoService {
                 .doOnError(e -> log.error("Falha ao baixar anexo: {}", e.getMessage(), e));
     }
 
+    @Override
+    public Mono<ArquivoAnexo> abrirArquivo(Long id) {
+        return Mono.fromCallable(() -> repository.findById(id).orElseThrow(() -> new BaseException("Anexo não encontrado.")))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(anexo -> {
+                    log.info("Abrindo arquivo do anexo com ID: {} e UUID: {}", anexo.getId(), anexo.getUuid());
+                    return new ArquivoAnexo(anexo.getNomeArquivo(), storageService.getFile(anexo.getUuid()));
+                });
+    }
+
     private Throwable handleDataIntegrityViolation(DataIntegrityViolationException e) {
         log.warn("Violação de integridade de dados ao salvar anexo: {}", e.getMessage());
 
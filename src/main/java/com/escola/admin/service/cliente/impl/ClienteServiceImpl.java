@@ -158,9 +158,8 @@ public class ClienteServiceImpl implements ClienteService {
     }
 
     public Mono<RelatorioBase64Response> emitirRelatorio(FiltroRelatorioRequest request, Usuario usuario) {
-        Mono<Page<Cliente>> clientesMono = Mono.justOrEmpty(findByFiltro(request.filtro(), usuario.getEmpresaIdFromToken(), null));
         return relatorioBaseService.emitirRelatorioGenerico(
-                clientesMono,
+                (ultimoId, pagina) -> clienteRepository.findRelatorioByFiltro(request.filtro(), usuario.getEmpresaIdFromToken(), ultimoId, pagina),
                 request,
                 usuario,
                 "Relatório de clientes", // Subtítulo
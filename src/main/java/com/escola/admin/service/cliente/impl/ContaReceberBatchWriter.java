@@ -0,0 +1,195 @@
+package com.escola.admin.service.cliente.impl;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.entity.cliente.ContaReceber;
+import com.escola.admin.model.entity.cliente.Contrato;
+import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.repository.cliente.ContaReceberRepository;
+import com.escola.admin.model.projection.cliente.VencimentoEmpresa;
+import com.escola.admin.repository.cliente.ContratoRepository;
+import com.escola.admin.repository.cliente.ResumoContaReceberMesRepository;
+import jakarta.transaction.Transactional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Grava parcelas em lote: todas as parcelas informadas são inseridas em uma única transação
+ * (tudo ou nada) e enviadas ao banco como um batch JDBC ({@code hibernate.jdbc.batch_size}).
+ * <p>
+ * Também grava/exclui parcelas individuais junto com o ajuste do total pago do contrato,
+ * na mesma transação, para que {@code tb_contrato.total_pago} nunca divirja das parcelas. A variação do valor pago
+ * é calculada a partir da parcela relida com lock de escrita dentro dessa transação, nunca de uma leitura anterior.
+ * O status do contrato (CONCLUIDO quando quitado) é decidido na mesma transação, sobre o contrato também bloqueado:
+ * pagamentos e estornos simultâneos não deixam status e total pago divergentes.
+ * <p>
+ * Os meses afetados do resumo materializado ({@code tb_resumo_conta_receber_mes}) são recalculados na mesma
+ * transação: se o recálculo falhar, a alteração das parcelas também é desfeita e o resumo nunca fica defasado.
+ * <p>
+ * Fica em um bean separado para que o {@code @Transactional} seja aplicado pelo proxy do Spring,
+ * o que não ocorreria em uma chamada interna do próprio serviço reativo.
+ */
+@Component
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ContaReceberBatchWriter {
+
+    ContaReceberRepository repository;
+    ContratoRepository contratoRepository;
+    ResumoContaReceberMesRepository resumoRepository;
+
+    /**
+     * @param idEmpresa empresa dos contratos das parcelas (a mesma para todo o lote).
+     */
+    @Transactional
+    public List<ContaReceber> inserir(Long idEmpresa, List<ContaReceber> parcelas) {
+        List<ContaReceber> salvas = repository.saveAll(parcelas);
+        // Força o envio do batch dentro da transação, para que falhas de integridade ocorram aqui.
+        repository.flush();
+        recalcularResumo(idEmpresa, salvas.stream().map(ContaReceber::getDataVencimento).toList());
+        log.debug("{} parcelas inseridas em lote.", salvas.size());
+        return salvas;
+    }
+
+    /**
+     * Salva a parcela e aplica ao contrato a diferença entre o valor pago novo e o gravado no banco.
+     *
+     * @return a parcela salva e o ajuste do contrato (total pago e, se mudou, o novo status).
+     */
+    @Transactional(rollbackOn = BaseException.class)
+    public ParcelaSalva salvar(ContaReceber conta) throws BaseException {
+        BigDecimal valorPagoAnterior = BigDecimal.ZERO;
+        LocalDate vencimentoAnterior = null;
+        if (conta.getId() != null) {
+            ContaReceber gravada = bloquear(conta.getId());
+            valorPagoAnterior = valorOuZero(gravada.getValorPago());
+            vencimentoAnterior = gravada.getDataVencimento();
+        }
+        ContaReceber salva = repository.save(conta);
+        BigDecimal deltaPago = valorOuZero(salva.getValorPago()).subtract(valorPagoAnterior);
+        Contrato contrato = bloquearContrato(conta.getContrato().getId());
+        AjusteContrato ajuste = ajustarContrato(contrato, deltaPago);
+        repository.flush();
+        // Uma mudança de vencimento tira a parcela de um mês e a coloca em outro: os dois são recalculados.
+        recalcularResumo(idEmpresa(contrato), Arrays.asList(vencimentoAnterior, salva.getDataVencimento()));
+        return new ParcelaSalva(salva, ajuste);
+    }
+
+    /**
+     * Exclui a parcela e retira do total do contrato o valor pago gravado no banco.
+     *
+     * @return o ajuste do contrato após a exclusão.
+     */
+    @Transactional(rollbackOn = BaseException.class)
+    public AjusteContrato excluir(Long idConta) throws BaseException {
+        ContaReceber conta = bloquear(idConta);
+        Contrato contrato = bloquearContrato(conta.getContrato().getId());
+        BigDecimal valorPago = valorOuZero(conta.getValorPago());
+        LocalDate vencimento = conta.getDataVencimento();
+        repository.delete(conta);
+        AjusteContrato ajuste = ajustarContrato(contrato, valorPago.negate());
+        repository.flush();
+        recalcularResumo(idEmpresa(contrato), List.of(vencimento));
+        return ajuste;
+    }
+
+    /**
+     * Grava o contrato e recalcula os meses das suas parcelas: uma mudança de status faz as parcelas entrarem
+     * ou saírem do resumo.
+     */
+    @Transactional
+    public Contrato salvarContrato(Contrato contrato) {
+        Contrato salvo = contratoRepository.save(contrato);
+        contratoRepository.flush();
+        if (salvo.getId() != null) {
+            recalcularResumo(idEmpresa(salvo), repository.findDatasVencimentoByIdContrato(salvo.getId()));
+        }
+        return salvo;
+    }
+
+    /**
+     * Exclui os contratos da matrícula (as parcelas vão junto) e recalcula os meses que tinham parcelas deles.
+     * Os vencimentos são lidos antes da exclusão, na mesma transação.
+     */
+    @Transactional
+    public void excluirContratosDaMatricula(Long idMatricula) {
+        List<VencimentoEmpresa> vencimentos = repository.findVencimentosByIdMatricula(idMatricula);
+        contratoRepository.deleteByMatriculaId(idMatricula);
+        // Empresas em ordem crescente, como os meses: mesma ordem de locks em todas as transações.
+        Map<Long, List<LocalDate>> porEmpresa = vencimentos.stream()
+                .filter(vencimento -> vencimento.idEmpresa() != null)
+                .collect(Collectors.groupingBy(VencimentoEmpresa::idEmpresa, TreeMap::new,
+                        Collectors.mapping(VencimentoEmpresa::dataVencimento, Collectors.toList())));
+        porEmpresa.forEach(this::recalcularResumo);
+    }
+
+    /**
+     * Sobre o contrato já bloqueado, soma o delta ao total pago (incremento no banco; a coluna não é gravada pela entidade)
+     * e ajusta o status na instância gerenciada, gravada no commit. Nenhum {@code Contrato} destacado é mesclado.
+     */
+    private AjusteContrato ajustarContrato(Contrato contrato, BigDecimal deltaPago) {
+        Long idContrato = contrato.getId();
+        BigDecimal totalPago = valorOuZero(contrato.getTotalPago()).add(deltaPago);
+        if (deltaPago.signum() != 0) {
+            contratoRepository.somarTotalPago(idContrato, deltaPago);
+            contrato.setTotalPago(totalPago);
+        }
+
+        StatusContrato anterior = contrato.getStatusContrato();
+        if (contrato.calcularValorFinalComDesconto().compareTo(totalPago) <= 0) {
+            contrato.setStatusContrato(StatusContrato.CONCLUIDO);
+        } else if (StatusContrato.CONCLUIDO.equals(anterior)) {
+            contrato.setStatusContrato(StatusContrato.ATIVO);
+        }
+        StatusContrato novo = contrato.getStatusContrato();
+        return new AjusteContrato(totalPago, novo != anterior ? novo : null);
+    }
+
+    private Contrato bloquearContrato(Long idContrato) throws BaseException {
+        return contratoRepository.findByIdParaAtualizacao(idContrato)
+                .orElseThrow(() -> new BaseException("Contrato não encontrado para o ID: " + idContrato));
+    }
+
+    private void recalcularResumo(Long idEmpresa, Collection<LocalDate> datasVencimento) {
+        if (idEmpresa != null) {
+            resumoRepository.recalcularMeses(idEmpresa, datasVencimento, ResumoContaReceberServiceImpl.STATUS_RESUMO);
+        }
+    }
+
+    /**
+     * ID da empresa do contrato; o proxy lazy devolve o ID sem precisar ser inicializado.
+     */
+    private static Long idEmpresa(Contrato contrato) {
+        return contrato.getEmpresa() != null ? contrato.getEmpresa().getId() : null;
+    }
+
+    private ContaReceber bloquear(Long idConta) throws BaseException {
+        return repository.findByIdParaAtualizacao(idConta)
+                .orElseThrow(() -> new BaseException("Conta a receber não encontrada para o ID: " + idConta));
+    }
+
+    private static BigDecimal valorOuZero(BigDecimal valor) {
+        return valor != null ? valor : BigDecimal.ZERO;
+    }
+
+    public record ParcelaSalva(ContaReceber contaReceber, AjusteContrato ajusteContrato) {
+    }
+
+    /**
+     * @param statusAlterado novo status do contrato, ou {@code null} se não mudou.
+     */
+    public record AjusteContrato(BigDecimal totalPago, StatusContrato statusAlterado) {
+    }
+}
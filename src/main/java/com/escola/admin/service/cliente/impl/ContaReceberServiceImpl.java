@@ -6,13 +6,17 @@ import com.escola.admin.model.entity.cliente.Contrato;
 import com.escola.admin.model.entity.cliente.StatusContaReceber;
 import com.escola.admin.model.entity.cliente.StatusContrato;
 import com.escola.admin.model.mapper.cliente.ContaReceberMapper;
-import com.escola.admin.model.mapper.cliente.ContratoMapper;
+import com.escola.admin.model.projection.cliente.ContratoParcelamento;
+import com.escola.admin.model.request.cliente.ContaReceberLoteRequest;
 import com.escola.admin.model.request.cliente.ContaReceberRequest;
+import com.escola.admin.model.response.cliente.ContaReceberLoteFalhaResponse;
+import com.escola.admin.model.response.cliente.ContaReceberLoteResponse;
 import com.escola.admin.model.response.cliente.ContaReceberPorMesDetalheResponse;
 import com.escola.admin.model.response.cliente.ContaReceberPorMesResumeResponse;
 import com.escola.admin.repository.cliente.ContaReceberRepository;
 import com.escola.admin.service.cliente.ContaReceberService;
 import com.escola.admin.service.cliente.ContratoService;
+import com.escola.admin.service.cliente.ResumoContaReceberService;
 import jakarta.transaction.Transactional;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
@@ -41,10 +45,15 @@ import java.util.*;
 public class ContaReceberServiceImpl implements ContaReceberService {
 
     private static final MathContext MATH_CONTEXT = new MathContext(10, RoundingMode.HALF_UP);
+    /**
+     * Quantidade de contratos lidos e gravados por vez na geração em lote.
+     */
+    private static final int TAMANHO_LOTE_CONTRATOS = 100;
     ContaReceberRepository repository;
     ContaReceberMapper mapper;
     ContratoService contratoService;
-    ContratoMapper contratoMapper;
+    ResumoContaReceberService resumoService;
+    ContaReceberBatchWriter batchWriter;
 
     private static BigDecimal getValorASerPago(ContaReceber existingEntity) {
         BigDecimal fatorDesconto = existingEntity.getDesconto().divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
@@ -61,9 +70,9 @@ public class ContaReceberServiceImpl implements ContaReceberService {
         return validateRequest(request)
                 .then(getRequiredEntities(request.idContrato()))
                 .flatMap(contrato -> updateOrCreate(request, contrato))
-                .flatMap(context -> persist(context.contaReceber)
-                        .map(contaReceber -> new EntitiesContext(context.contrato, contaReceber)))
-                .flatMap(this::alterarStatusParaPagoContrato)
+                .flatMap(context -> persist(context)
+                        .flatMap(parcelaSalva -> alterarStatusContrato(context.contrato, parcelaSalva.ajusteContrato())
+                                .thenReturn(parcelaSalva.contaReceber())))
                 .doOnSuccess(savedEntity -> log.info("Conta a receber salva com sucesso. ID: {}", savedEntity.getId()))
                 .doOnError(e -> log.error("Falha na operação de salvar conta a receber: {}", e.getMessage(), e))
                 .onErrorMap(DataIntegrityViolationException.class, this::handleDataIntegrityViolation)
@@ -123,10 +132,27 @@ public class ContaReceberServiceImpl implements ContaReceberService {
                         return Mono.empty();
                     }
 
-                    return persistirParcelas(parcelas, contrato.getId());
+                    return persistirParcelas(idEmpresa(contrato), parcelas, contrato.getId());
                 });
     }
 
+    @Override
+    public Mono<ContaReceberLoteResponse> criarEmLote(ContaReceberLoteRequest request, Long idEmpresa) {
+        if (idEmpresa == null) {
+            return Mono.error(new BaseException("Empresa não identificada no token. Não é possível gerar parcelas em lote."));
+        }
+        ContaReceberLoteRequest filtro = request != null ? request : ContaReceberLoteRequest.builder().build();
+        ProgressoLote progresso = new ProgressoLote();
+
+        log.info("Iniciando geração de parcelas em lote. Empresa: {}, turma: {}, curso: {}", idEmpresa, filtro.idTurma(), filtro.idCurso());
+
+        return processarBlocos(idEmpresa, filtro, 0L, progresso)
+                .then(Mono.fromSupplier(progresso::toResponse))
+                .doOnSuccess(resultado -> log.info("Geração de parcelas em lote concluída para a empresa {}: {}", idEmpresa, resultado))
+                .doOnError(e -> log.error("Falha na geração de parcelas em lote para a empresa {}: {}", idEmpresa, e.getMessage(), e))
+                .onErrorMap(e -> !(e instanceof BaseException), BaseException::handleGenericException);
+    }
+
     @Override
     public Mono<Void> deletarContaEAtualizarContrato(Long idConta) {
         // 1. Busca a conta a receber primeiro
@@ -137,15 +163,13 @@ public class ContaReceberServiceImpl implements ContaReceberService {
                             .map(contrato -> new EntitiesContext(contrato, contaReceber));
                 })
                 .flatMap(context -> {
-                    // 3. Dentro de outro flatMap, encadeia as operações
-                    // Garante que a deleção ocorra primeiro
-                    return deleteById(idConta)
-                            // Em seguida, após a deleção, executa a alteração de status
-                            .then(alterarStatusParaPagoContrato(context));
+                    // 3. Exclui a parcela e desconta o valor pago do total do contrato na mesma transação
+                    return Mono.fromCallable(() -> batchWriter.excluir(context.contaReceber.getId()))
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .doOnSuccess(v -> log.info("Conta a receber com ID {} excluída com sucesso.", idConta))
+                            // Em seguida, após a deleção, executa a alteração de status com o novo total
+                            .flatMap(ajuste -> alterarStatusContrato(context.contrato, ajuste));
                 })
-                // O Mono retornado por alterarStatusParaPagoContrato é um Mono<ContaReceber>.
-                // Para fazer com que o método retorne Mono<Void>, você precisa do .then() no final.
-                .then()
                 // 4. Logging e tratamento de erro
                 .doOnSuccess(v -> log.info("Operação de exclusão da conta com ID {} e alteração de status do contrato concluída com sucesso.", idConta))
                 .doOnError(e -> log.error("Erro na operação completa: {}", e.getMessage(), e))
@@ -154,40 +178,11 @@ public class ContaReceberServiceImpl implements ContaReceberService {
     }
 
     @Override
-    public Mono<ContaReceberPorMesResumeResponse> fetchResumoByMes(LocalDate dataRef) {
-        return Mono.fromCallable(() -> {
-                    // 1. Calcula o início e o fim do mês a partir da data de referência
-                    final LocalDate inicioDoMes = dataRef.with(TemporalAdjusters.firstDayOfMonth());
-                    final LocalDate fimDoMes = dataRef.with(TemporalAdjusters.lastDayOfMonth());
-
-                    List<StatusContrato> statusParaBuscar = Arrays.asList(StatusContrato.ATIVO, StatusContrato.CONCLUIDO);
-
-                    // 2. Chama o repositório com as novas datas
-                    List<ContaReceber> contas = repository
-                            .findByMesAndContratoStatus(inicioDoMes, fimDoMes, statusParaBuscar)
-                            .orElse(Collections.emptyList());
-
-                    // 2. Processa a lista de contas para calcular os valores de resumo.
-                    // Usamos Streams para somar os valores de forma concisa e eficiente.
-                    BigDecimal totalAReceber = contas.stream()
-                            .map(ContaReceber::getValorTotal)
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    BigDecimal totalPago = contas.stream()
-                            // 1. Filtra a lista para manter apenas as contas com valorPago não-nulo.
-                            .filter(conta -> conta.getValorPago() != null)
-                            // 2. Mapeia para o valor do campo.
-                            .map(ContaReceber::getValorPago)
-                            // 3. Reduz a lista de valores a uma soma.
-                            .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-                    // 3. Cria e retorna a resposta com os valores calculados.
-                    // O Mono agora tem um valor de retorno, que é o objeto de resposta.
-                    return new ContaReceberPorMesResumeResponse(dataRef, totalAReceber, totalPago, totalAReceber.subtract(totalPago));
-                })
-                // 2. Operadores de "efeitos colaterais" para sucesso ou erro
+    public Mono<ContaReceberPorMesResumeResponse> fetchResumoByMes(LocalDate dataRef, Long idEmpresa) {
+        // Leitura por chave primária no resumo materializado (ver ResumoContaReceberService).
+        return resumoService.findByMes(dataRef, idEmpresa)
                 .doOnSuccess(resumo -> log.info("Resumo do mês de {} de {} gerado com sucesso.", dataRef.getMonth(), dataRef.getYear()))
-                .doOnError(e -> log.error("Falha ao gerar o resumo do mês: {}", e.getMessage(), e))                // 3. Operadores para mapeamento de erros (conforme sua necessidade)
+                .doOnError(e -> log.error("Falha ao gerar o resumo do mês: {}", e.getMessage(), e))
                 .onErrorMap(e -> !(e instanceof BaseException), e -> new BaseException("Falha ao gerar o resumo do mês: %s".formatted(e.getMessage()), e));
     }
 
@@ -215,9 +210,9 @@ public class ContaReceberServiceImpl implements ContaReceberService {
                 diasAtraso = (int) ChronoUnit.DAYS.between(conta.getDataVencimento(), conta.getDataPagamento());
             }
 
+            // Apenas o ID do contrato (não inicializa o proxy); contrato e cliente são resolvidos em lote.
             return ContaReceberPorMesDetalheResponse.builder()
-                    .contrato(contratoMapper.toResponse(conta.getContrato()))
-                    .nome(conta.getContrato().getCliente().getNome())
+                    .idContrato(conta.getContrato().getId())
                     .valorTotal(conta.getValorTotal())
                     .dataVencimento(conta.getDataVencimento())
                     .valorPago(conta.getValorPago())
@@ -293,16 +288,97 @@ public class ContaReceberServiceImpl implements ContaReceberService {
     }
 
     /**
-     * Persiste a lista de parcelas no banco de dados de forma reativa.
+     * Persiste todas as parcelas do contrato em um único batch e uma única transação (tudo ou nada),
+     * junto com o recálculo dos meses afetados do resumo.
      */
-    private Mono<Void> persistirParcelas(List<ContaReceber> parcelas, Long idContrato) {
-        return Flux.fromIterable(parcelas)
-                .flatMap(this::persist)
+    private Mono<Void> persistirParcelas(Long idEmpresa, List<ContaReceber> parcelas, Long idContrato) {
+        return Mono.fromCallable(() -> batchWriter.inserir(idEmpresa, parcelas))
+                .subscribeOn(Schedulers.boundedElastic())
                 .then()
                 .doOnSuccess(v -> log.info("Todas as {} contas a receber para o contrato ID {} foram criadas e salvas.", parcelas.size(), idContrato))
                 .doOnError(e -> log.error("Erro ao persistir contas a receber para o contrato ID {}: {}", idContrato, e.getMessage(), e));
     }
 
+    /**
+     * Lê o bloco de contratos seguinte a {@code ultimoId} (paginação por chave), grava as parcelas dele e só então
+     * lê o próximo: a leitura do bloco seguinte parte do fim da gravação do anterior, então nunca há mais de um bloco
+     * em memória. Para o próximo bloco é guardado apenas o último ID, não a lista.
+     */
+    private Mono<Void> processarBlocos(Long idEmpresa, ContaReceberLoteRequest filtro, Long ultimoId, ProgressoLote progresso) {
+        return contratoService.findSemParcelas(idEmpresa, filtro, ultimoId, TAMANHO_LOTE_CONTRATOS)
+                .flatMap(bloco -> {
+                    if (bloco.isEmpty()) {
+                        return Mono.empty();
+                    }
+                    Mono<Void> proximo = Mono.empty();
+                    if (bloco.size() == TAMANHO_LOTE_CONTRATOS) {
+                        Long ultimoIdDoBloco = bloco.get(bloco.size() - 1).id();
+                        proximo = Mono.defer(() -> processarBlocos(idEmpresa, filtro, ultimoIdDoBloco, progresso));
+                    }
+                    return processarBloco(idEmpresa, bloco, progresso)
+                            .doOnSuccess(v -> log.info("Geração em lote (empresa {}): {} contratos processados, {} parcelas geradas, {} falhas.",
+                                    idEmpresa, progresso.contratosProcessados, progresso.parcelasGeradas, progresso.falhas.size()))
+                            .then(proximo);
+                });
+    }
+
+    /**
+     * Gera e grava as parcelas de um bloco de contratos em um único batch.
+     * Se o batch falhar, o bloco é refeito contrato a contrato para isolar os que falharam.
+     */
+    private Mono<Void> processarBloco(Long idEmpresa, List<ContratoParcelamento> bloco, ProgressoLote progresso) {
+        List<ContratoParcelamento> comParcelas = new ArrayList<>(bloco.size());
+        List<ContaReceber> parcelasDoBloco = new ArrayList<>();
+        for (ContratoParcelamento contrato : bloco) {
+            List<ContaReceber> parcelas = gerarParcelas(toContrato(contrato), contrato.valorMensalidade());
+            if (parcelas.isEmpty()) {
+                progresso.falha(contrato, "Nenhuma parcela gerada. Verifique o valor total do contrato e a mensalidade do curso.");
+            } else {
+                comParcelas.add(contrato);
+                parcelasDoBloco.addAll(parcelas);
+            }
+        }
+        if (parcelasDoBloco.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> batchWriter.inserir(idEmpresa, parcelasDoBloco))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(salvas -> progresso.sucesso(comParcelas.size(), salvas))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Falha ao gravar o bloco de {} contratos em batch ({}). Gravando contrato a contrato.", comParcelas.size(), e.getMessage());
+                    return Flux.fromIterable(comParcelas)
+                            .concatMap(contrato -> persistirContratoIsolado(idEmpresa, contrato, progresso))
+                            .then();
+                });
+    }
+
+    private Mono<Void> persistirContratoIsolado(Long idEmpresa, ContratoParcelamento contrato, ProgressoLote progresso) {
+        // Parcelas geradas novamente: as da tentativa em batch já receberam IDs da sequence e seriam tratadas como existentes.
+        return Mono.fromCallable(() -> batchWriter.inserir(idEmpresa, gerarParcelas(toContrato(contrato), contrato.valorMensalidade())))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(salvas -> progresso.sucesso(1, salvas))
+                .then()
+                .onErrorResume(e -> {
+                    log.error("Erro ao gerar parcelas do contrato ID {} no lote: {}", contrato.id(), e.getMessage(), e);
+                    progresso.falha(contrato, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Referência ao contrato com apenas os campos usados em {@link #gerarParcelas}; o ID basta para a chave estrangeira.
+     */
+    private static Contrato toContrato(ContratoParcelamento contrato) {
+        return Contrato.builder()
+                .id(contrato.id())
+                .numeroContrato(contrato.numeroContrato())
+                .valorTotal(contrato.valorTotal())
+                .desconto(contrato.desconto())
+                .build();
+    }
+
     private Mono<Void> validateRequest(ContaReceberRequest request) {
         if (request.idContrato() == null) {
             return Mono.error(new BaseException("O ID do contrato é obrigatório."));
@@ -350,26 +426,73 @@ public class ContaReceberServiceImpl implements ContaReceberService {
         }
     }
 
-    private Mono<ContaReceber> persist(ContaReceber entity) {
-        return Mono.fromCallable(() -> repository.save(entity)).subscribeOn(Schedulers.boundedElastic());
+    /**
+     * Salva a parcela e ajusta o total pago do contrato pela variação do valor pago, na mesma transação
+     * (a variação é calculada no {@link ContaReceberBatchWriter}, sobre a parcela bloqueada).
+     */
+    private Mono<ContaReceberBatchWriter.ParcelaSalva> persist(EntitiesContext context) {
+        return Mono.fromCallable(() -> batchWriter.salvar(context.contaReceber))
+                .subscribeOn(Schedulers.boundedElastic());
     }
 
-    private Mono<ContaReceber> alterarStatusParaPagoContrato(EntitiesContext context) {
-        return findByFiltro(context.contrato.getId())
-                .flatMap(lista -> contratoService.alterarStatus(context.contrato, lista))
-                .then(Mono.just(context.contaReceber))
-                .doOnSuccess(savedEntity -> log.info("O contrato com o ID: {} foi alterado o status", context.contrato.getId()))
+    /**
+     * O status já foi decidido e gravado na transação da parcela, sobre o contrato bloqueado; aqui só são aplicados
+     * os efeitos de uma mudança de status. O {@code contrato} (carregado antes da gravação) não é salvo.
+     */
+    private Mono<Void> alterarStatusContrato(Contrato contrato, ContaReceberBatchWriter.AjusteContrato ajuste) {
+        if (ajuste.statusAlterado() == null) {
+            return Mono.empty();
+        }
+        return contratoService.statusAlterado(contrato, ajuste.statusAlterado())
+                .doOnSuccess(v -> log.info("O contrato com o ID: {} foi alterado o status", contrato.getId()))
                 .doOnError(e -> log.error("Falha na operação de alterar o status do contrato: {}", e.getMessage(), e))
                 .onErrorMap(DataIntegrityViolationException.class, this::handleDataIntegrityViolation)
                 .onErrorMap(e -> !(e instanceof BaseException), BaseException::handleGenericException);
     }
 
+    /**
+     * ID da empresa do contrato; o proxy lazy devolve o ID sem precisar ser inicializado.
+     */
+    private static Long idEmpresa(Contrato contrato) {
+        return contrato != null && contrato.getEmpresa() != null ? contrato.getEmpresa().getId() : null;
+    }
+
     private Throwable handleDataIntegrityViolation(DataIntegrityViolationException e) {
         log.warn("Violação de integridade de dados ao salvar conta a receber: {}", e.getMessage());
         String errorMessage = "Erro de integridade de dados ao salvar o conta a receber.";
         return new BaseException(errorMessage, e);
     }
 
+    /**
+     * Acumulador da geração em lote. Os blocos são processados em sequência, nunca em paralelo.
+     */
+    private static final class ProgressoLote {
+        int contratosProcessados;
+        int contratosComParcelas;
+        int parcelasGeradas;
+        final List<ContaReceberLoteFalhaResponse> falhas = new ArrayList<>();
+
+        void sucesso(int contratos, List<ContaReceber> parcelas) {
+            contratosProcessados += contratos;
+            contratosComParcelas += contratos;
+            parcelasGeradas += parcelas.size();
+        }
+
+        void falha(ContratoParcelamento contrato, String motivo) {
+            contratosProcessados++;
+            falhas.add(new ContaReceberLoteFalhaResponse(contrato.id(), contrato.numeroContrato(), motivo));
+        }
+
+        ContaReceberLoteResponse toResponse() {
+            return ContaReceberLoteResponse.builder()
+                    .contratosProcessados(contratosProcessados)
+                    .contratosComParcelas(contratosComParcelas)
+                    .parcelasGeradas(parcelasGeradas)
+                    .falhas(List.copyOf(falhas))
+                    .build();
+        }
+    }
+
     private record EntitiesContext(Contrato contrato, ContaReceber contaReceber
     ) {
     }
@@ -0,0 +1,101 @@
+package com.escola.admin.service.cliente.impl;
+
+import com.escola.admin.service.PdfConverterService;
+import com.escola.admin.service.cliente.ContratoPdfCacheService;
+import com.escola.admin.service.report.RenderizacaoService;
+import com.escola.admin.util.HashUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+/**
+ * Implementação com Caffeine limitada pelo tamanho dos arquivos ({@code maximumWeight} em bytes), não pela
+ * quantidade: um contrato longo ocupa o espaço de vários curtos. Conversões com erro não ficam no cache.
+ * <p>
+ * Como a chave depende só do conteúdo, a invalidação serve para liberar memória logo que o documento muda;
+ * um PDF desatualizado nunca é retornado, mesmo sem ela.
+ */
+@Service
+@Slf4j
+public class ContratoPdfCacheServiceImpl implements ContratoPdfCacheService {
+
+    private final PdfConverterService pdfConverterService;
+    private final RenderizacaoService renderizacaoService;
+    private final Cache<String, byte[]> pdfs;
+    private final Cache<Long, String> chavePorContrato;
+
+    public ContratoPdfCacheServiceImpl(
+            PdfConverterService pdfConverterService,
+            RenderizacaoService renderizacaoService,
+            @Value("${application.contrato.pdf-cache.ttl:PT12H}") Duration ttl,
+            @Value("${application.contrato.pdf-cache.max-size:64MB}") DataSize maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.pdfConverterService = pdfConverterService;
+        this.renderizacaoService = renderizacaoService;
+        this.pdfs = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String chave, byte[] pdf) -> pdf.length)
+                .recordStats()
+                .build();
+        this.chavePorContrato = Caffeine.newBuilder()
+                .expireAfterAccess(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pdfs, "contrato.pdf");
+    }
+
+    @Override
+    public Mono<byte[]> buscarOuGerar(Long idContrato, String contratoDoc) {
+        return Mono.defer(() -> {
+            String chave = HashUtils.sha256Hex(contratoDoc) + ":" + pdfConverterService.versaoEstilo();
+            if (idContrato != null) {
+                chavePorContrato.put(idContrato, chave);
+            }
+            // Acerto é respondido na própria thread; só a conversão ocupa o pool de renderização.
+            // getIfPresent registra o acerto nas métricas e renova o expireAfterAccess/recência da entrada.
+            byte[] pdf = pdfs.getIfPresent(chave);
+            if (pdf != null) {
+                return Mono.just(pdf);
+            }
+            return renderizacaoService.executar("contrato", () -> gerar(chave, idContrato, contratoDoc));
+        });
+    }
+
+    private byte[] gerar(String chave, Long idContrato, String contratoDoc) throws IOException {
+        try {
+            return pdfs.get(chave, c -> {
+                log.debug("PDF do contrato {} não está em cache; convertendo o documento.", idContrato);
+                try {
+                    return pdfConverterService.convertHtmlToPdf(contratoDoc);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void invalidar(Long idContrato) {
+        if (idContrato == null) {
+            return;
+        }
+        String chave = chavePorContrato.asMap().remove(idContrato);
+        if (chave != null) {
+            pdfs.invalidate(chave);
+            log.debug("PDF do contrato {} removido do cache.", idContrato);
+        }
+    }
+}
@@ -8,10 +8,11 @@ import com.escola.admin.model.entity.auxiliar.Curso;
 import com.escola.admin.model.entity.auxiliar.Matricula;
 import com.escola.admin.model.entity.auxiliar.StatusMatricula;
 import com.escola.admin.model.entity.cliente.Cliente;
-import com.escola.admin.model.entity.cliente.ContaReceber;
 import com.escola.admin.model.entity.cliente.Contrato;
 import com.escola.admin.model.entity.cliente.StatusContrato;
 import com.escola.admin.model.mapper.cliente.ContratoMapper;
+import com.escola.admin.model.projection.cliente.ContratoParcelamento;
+import com.escola.admin.model.request.cliente.ContaReceberLoteRequest;
 import com.escola.admin.model.request.cliente.ContratoModeloRequest;
 import com.escola.admin.model.request.cliente.ContratoRequest;
 import com.escola.admin.model.request.report.FiltroRelatorioRequest;
@@ -20,10 +21,10 @@ import com.escola.admin.model.response.cliente.ContratoBase64Response;
 import com.escola.admin.repository.cliente.ContratoRepository;
 import com.escola.admin.service.EmpresaService;
 import com.escola.admin.service.ParametroService;
-import com.escola.admin.service.PdfConverterService;
 import com.escola.admin.service.auxiliar.CursoService;
 import com.escola.admin.service.auxiliar.MatriculaService;
 import com.escola.admin.service.cliente.ArtificalInteligenceService;
+import com.escola.admin.service.cliente.ContratoPdfCacheService;
 import com.escola.admin.service.cliente.ContratoService;
 import com.escola.admin.service.report.RelatorioBaseService;
 import jakarta.transaction.Transactional;
@@ -32,6 +33,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -43,6 +45,9 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.regex.Matcher;
@@ -56,6 +61,11 @@ import static com.escola.admin.service.ParametroService.CHAVE_CONTRATO_MODELO_PA
 @Slf4j
 public class ContratoServiceImpl implements ContratoService {
 
+    /**
+     * Contratos elegíveis para a geração de parcelas em lote (início de período letivo).
+     */
+    private static final List<StatusContrato> STATUS_PARCELAMENTO_LOTE = List.of(StatusContrato.ATIVO, StatusContrato.PENDENTE);
+
     ContratoRepository repository;
     ContratoMapper mapper;
     ArtificalInteligenceService parseLocal;
@@ -64,7 +74,8 @@ public class ContratoServiceImpl implements ContratoService {
     MatriculaService matriculaService;
     CursoService cursoService;
     RelatorioBaseService relatorioBaseService;
-    PdfConverterService pdfConverterService;
+    ContratoPdfCacheService contratoPdfCacheService;
+    ContaReceberBatchWriter batchWriter;
 //    ArtificalInteligenceService chatgpt;
     //    ArtificalInteligenceService gemini;
 
@@ -170,7 +181,7 @@ public class ContratoServiceImpl implements ContratoService {
     public Mono<Void> save(ContratoRequest request) {
         return getRequiredEntities(request) // Step 2: Fetch all necessary entities concurrently
                 .flatMap(context -> findOrCreate(request, context)) // Step 3: Find or create the Matricula entity
-                .flatMap(this::persist) // Step 4: Persist the Matricula
+                .flatMap(this::persistAtualizandoResumo) // Step 4: Persist the Matricula
                 .flatMap(this::alterarStatusMatricula)
                 .doOnSuccess(savedEntity -> log.info("Contrato salvo com sucesso. ID: {}", savedEntity.getId()))
                 .doOnError(e -> log.error("Falha na operação de salvar contrato: {}", e.getMessage(), e))
@@ -185,6 +196,7 @@ public class ContratoServiceImpl implements ContratoService {
         return findById(request.id())
                 .flatMap(context -> parseModelo(request)) // Step 3: Find or create the Matricula entity
                 .flatMap(this::persist) // Step 4: Persist the Matricula
+                .doOnNext(savedEntity -> contratoPdfCacheService.invalidar(savedEntity.getId()))
                 .doOnSuccess(savedEntity -> log.info("Contrato salvo com sucesso. ID: {}", savedEntity.getId()))
                 .doOnError(e -> log.error("Falha na operação de salvar contrato: {}", e.getMessage(), e))
                 .onErrorMap(DataIntegrityViolationException.class, this::handleDataIntegrityViolation)
@@ -216,6 +228,16 @@ public class ContratoServiceImpl implements ContratoService {
 
     }
 
+    @Override
+    public Mono<List<Contrato>> findAllComClienteByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Mono.just(Collections.emptyList());
+        }
+        return Mono.fromCallable(() -> repository.findAllComClienteByIdIn(ids))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Erro ao buscar contratos em lote ({} IDs): {}", ids.size(), e.getMessage(), e));
+    }
+
     @Override
     public Mono<Contrato> findByIdMatricula(Long id) {
         log.info("Buscando Contato por ID: {}", id);
@@ -236,7 +258,9 @@ public class ContratoServiceImpl implements ContratoService {
     @Override
     public Mono<Void> deleteByIdMatricula(Long id) {
         log.info("Apagar Contato por ID matricula: {}", id);
-        return Mono.fromRunnable(() -> repository.deleteByMatriculaId(id))
+        // As parcelas são apagadas junto com os contratos; o resumo dos meses delas é recalculado na mesma transação.
+        return Mono.fromRunnable(() -> batchWriter.excluirContratosDaMatricula(id))
+                .subscribeOn(Schedulers.boundedElastic())
                 .then() // Retorna um Mono<Void> para indicar a conclusão
                 .doOnSuccess(v -> log.info("Contratos excluídos com sucesso para o ID da matrícula: {}", id))
                 .doOnError(e -> log.error("Erro ao excluir contratos para o ID da matrícula {}: {}", id, e.getMessage(), e));
@@ -265,6 +289,7 @@ public class ContratoServiceImpl implements ContratoService {
                             Parametro parametro = tuple.getT2();
 
                             converterComIA(contrato, parametro);
+                            contratoPdfCacheService.invalidar(contrato.getId());
                             return Mono.just(contrato); // Retorna o contrato modificado
 
                         })
@@ -388,6 +413,14 @@ public class ContratoServiceImpl implements ContratoService {
         return Mono.fromCallable(() -> repository.save(entity)).subscribeOn(Schedulers.boundedElastic());
     }
 
+    /**
+     * Uma mudança de status do contrato faz as parcelas entrarem ou saírem do resumo mensal: o contrato e os meses
+     * das parcelas são gravados na mesma transação.
+     */
+    private Mono<Contrato> persistAtualizandoResumo(Contrato entity) {
+        return Mono.fromCallable(() -> batchWriter.salvarContrato(entity)).subscribeOn(Schedulers.boundedElastic());
+    }
+
     private Mono<Contrato> alterarStatusMatricula(Contrato contrato) {
         if (StatusContrato.ATIVO.equals(contrato.getStatusContrato())) {
             return matriculaService.alterarStatus(contrato.getMatricula(), StatusMatricula.ATIVA).then(Mono.just(contrato));
@@ -479,6 +512,14 @@ public class ContratoServiceImpl implements ContratoService {
                 .doOnError(e -> log.error("Falha ao obter valor da mensalidade para o contrato {}: {}", idContrato, e.getMessage()));
     }
 
+    @Override
+    public Mono<List<ContratoParcelamento>> findSemParcelas(Long idEmpresa, ContaReceberLoteRequest filtro, Long ultimoId, int tamanhoLote) {
+        return Mono.fromCallable(() -> repository.findSemParcelasAposId(idEmpresa, filtro.idTurma(), filtro.idCurso(),
+                        STATUS_PARCELAMENTO_LOTE, ultimoId, Limit.of(tamanhoLote)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnError(e -> log.error("Erro ao buscar contratos sem parcelas da empresa {} após o ID {}: {}", idEmpresa, ultimoId, e.getMessage(), e));
+    }
+
     @Override
     public Mono<ContratoBase64Response> downloadDocContrato(Long id) {
         return Mono.fromCallable(() -> repository.findById(id).orElseThrow(() -> new BaseException("Anexo não encontrado.")))
@@ -488,30 +529,26 @@ public class ContratoServiceImpl implements ContratoService {
                     if (entity.getContratoDoc() == null) {
                         return Mono.error(new BaseException("O contrato não possui documento."));
                     }
-                    try {
-                        // Tenta a conversão, que pode lançar uma IOException
 //                        var content = itextPdfConverterService.convertHtmlToPdfBase64(entity.getContratoDoc());
-                        var content = pdfConverterService.convertHtmlToPdfBase64(entity.getContratoDoc());
-
-                        // Se a conversão for bem-sucedida, retorna o Mono com o sucesso
-                        return Mono.just(ContratoBase64Response.builder()
-                                .conteudoBase64(content)
-                                .nomeArquivo("Contrato-%s".formatted(entity.getNumeroContrato()))
-                                .build());
-
-                    } catch (IOException e) {
-                        log.error("Falha ao converter HTML para PDF para o contrato {}: {}", entity.getNumeroContrato(), e.getMessage());
-                        return Mono.error(new BaseException("Erro ao gerar o PDF do contrato.", e));
-                    }
+                    // A conversão roda no pool de renderização, fora das threads do Reactor e do boundedElastic.
+                    return contratoPdfCacheService.buscarOuGerar(entity.getId(), entity.getContratoDoc())
+                            .map(pdf -> ContratoBase64Response.builder()
+                                    .conteudoBase64(Base64.getEncoder().encodeToString(pdf))
+                                    .nomeArquivo("Contrato-%s".formatted(entity.getNumeroContrato()))
+                                    .build())
+                            .onErrorMap(IOException.class, e -> {
+                                log.error("Falha ao converter HTML para PDF para o contrato {}: {}", entity.getNumeroContrato(), e.getMessage());
+                                return new BaseException("Erro ao gerar o PDF do contrato.", e);
+                            });
                 })
                 .doOnSuccess(v -> log.info("Download do documento do contrato concluído com sucesso."))
                 .doOnError(e -> log.error("Falha ao baixar anexo: {}", e.getMessage(), e));
     }
 
     public Mono<RelatorioBase64Response> emitirRelatorio(FiltroRelatorioRequest request, List<StatusContrato> status, Usuario usuario) {
-        Mono<Page<Contrato>> entitiesMono = Mono.justOrEmpty(findByFiltro(request.filtro(), usuario.getEmpresaIdFromToken(), status, null));
         return relatorioBaseService.emitirRelatorioGenerico(
-                entitiesMono,
+                (ultimoId, pagina) -> repository.findRelatorioByFiltro(request.filtro(), usuario.getEmpresaIdFromToken(),
+                        (status != null && status.isEmpty()) ? null : status, ultimoId, pagina),
                 request,
                 usuario,
                 "Relatório de contratos", // Subtítulo
@@ -520,58 +557,18 @@ public class ContratoServiceImpl implements ContratoService {
         );
     }
 
-    @Override
-    public Mono<Void> alterarStatus(Contrato contrato, List<ContaReceber> contasReceber) {
-        BigDecimal totalPago = BigDecimal.ZERO;
-        for (ContaReceber conta : contasReceber) {
-            if (conta.getValorPago() != null) {
-                totalPago = totalPago.add(conta.getValorPago());
-            }
-        }
-
-        if (getValorFinalComDesconto(contrato).compareTo(totalPago) <= 0) {
-            contrato.setStatusContrato(StatusContrato.CONCLUIDO);
-        } else if (StatusContrato.CONCLUIDO.equals(contrato.getStatusContrato())) {
-            contrato.setStatusContrato(StatusContrato.ATIVO);
-        } else {
-            return Mono.empty();
-        }
-
-        return this.persist(contrato)
-                .flatMap(this::alterarStatusMatricula)
-                .doOnSuccess(savedEntity -> log.info("Status do contrao. ID: {} alterado com sucesso para: {}", savedEntity.getId(), contrato.getStatusContrato()))
-                .doOnError(e -> log.error("Falha na operação de salvar contrato: {}", e.getMessage(), e))
-                .onErrorMap(DataIntegrityViolationException.class, this::handleDataIntegrityViolation)
-                .onErrorMap(e -> !(e instanceof BaseException), BaseException::handleGenericException)
-                .then();
-    }
-
     /**
-     * Calcula e retorna o valor final do contrato após aplicar o desconto em porcentagem.
-     *
-     * @return O valor do contrato com o desconto aplicado, ou o valor total se o desconto
-     * não for um valor válido (entre 0 e 100).
+     * O status já foi gravado junto com o total pago, na transação da parcela ({@code ContaReceberBatchWriter});
+     * aqui só são aplicados os efeitos: contrato reaberto (ATIVO) volta a deixar a matrícula ativa.
      */
-    public BigDecimal getValorFinalComDesconto(Contrato contrato) {
-        // 1. Verifica se o desconto é um valor válido (entre 0 e 100)
-        // Isso evita descontos negativos ou acima de 100%, que não fariam sentido.
-        if (contrato.getDesconto() == null || contrato.getDesconto().compareTo(BigDecimal.ZERO) < 0 || contrato.getDesconto().compareTo(new BigDecimal("100")) > 0) {
-            log.info("Atenção: O valor do desconto é nulo ou inválido. Retornando o valor total.");
-            return contrato.getValorTotal();
+    @Override
+    public Mono<Void> statusAlterado(Contrato contrato, StatusContrato novoStatus) {
+        log.info("Status do contrato ID: {} alterado para: {}", contrato.getId(), novoStatus);
+        if (StatusContrato.ATIVO.equals(novoStatus)) {
+            return matriculaService.alterarStatus(contrato.getMatricula(), StatusMatricula.ATIVA)
+                    .doOnError(e -> log.error("Falha ao reativar a matrícula do contrato {}: {}", contrato.getId(), e.getMessage(), e));
         }
-
-        // 2. Converte a porcentagem de desconto para um valor decimal
-        // Ex: 10% se torna 0.10
-        BigDecimal porcentagemDecimal = contrato.getDesconto().divide(new BigDecimal("100"), 4, RoundingMode.HALF_UP);
-
-        // 3. Calcula o valor a ser descontado
-        BigDecimal valorDoDesconto = contrato.getValorTotal().multiply(porcentagemDecimal);
-
-        // 4. Subtrai o valor do desconto do valor total
-        BigDecimal valorFinal = contrato.getValorTotal().subtract(valorDoDesconto);
-
-        // Retorna o valor final, arredondado para duas casas decimais
-        return valorFinal.setScale(2, RoundingMode.HALF_UP);
+        return Mono.empty();
     }
 
     private record EntitiesContext(Matricula matricula, Empresa empresa
@@ -0,0 +1,86 @@
+package com.escola.admin.service.cliente.impl;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.entity.cliente.ResumoContaReceberMes;
+import com.escola.admin.model.entity.cliente.ResumoContaReceberMesId;
+import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.response.cliente.ContaReceberPorMesResumeResponse;
+import com.escola.admin.repository.cliente.ResumoContaReceberMesRepository;
+import com.escola.admin.service.cliente.ResumoContaReceberService;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Mantém o resumo mensal materializado ({@code tb_resumo_conta_receber_mes}).
+ * <p>
+ * Cada alteração de parcela recalcula apenas o(s) mês(es) afetado(s) da empresa, na mesma transação da alteração
+ * ({@link ContaReceberBatchWriter}); a leitura do painel passa a ser uma busca por chave primária. Se o recálculo
+ * falhar, a alteração é desfeita junto: o resumo não fica defasado em silêncio. {@link #reconstruir(Long)} continua
+ * disponível como reparo (ex: alterações feitas direto no banco).
+ */
+@Service
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ResumoContaReceberServiceImpl implements ResumoContaReceberService {
+
+    /**
+     * Mesmos status considerados pelo painel financeiro.
+     */
+    static final List<String> STATUS_RESUMO = List.of(StatusContrato.ATIVO.name(), StatusContrato.CONCLUIDO.name());
+
+    ResumoContaReceberMesRepository repository;
+
+    @Override
+    public Mono<ContaReceberPorMesResumeResponse> findByMes(LocalDate dataRef, Long idEmpresa) {
+        if (idEmpresa == null) {
+            // Usuário sem empresa (ex: SUPER_ADMIN): não há parcelas no escopo.
+            return Mono.just(new ContaReceberPorMesResumeResponse(dataRef, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO));
+        }
+        ResumoContaReceberMesId id = new ResumoContaReceberMesId(idEmpresa, inicioDoMes(dataRef));
+        return Mono.fromCallable(() -> repository.findById(id)
+                        // Mês ainda não materializado: calcula uma vez e grava, as próximas leituras são por PK.
+                        .or(() -> {
+                            recalcular(idEmpresa, dataRef);
+                            return repository.findById(id);
+                        })
+                        .map(resumo -> toResponse(dataRef, resumo))
+                        .orElseThrow(() -> new BaseException("Não foi possível obter o resumo do mês.")))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Mono<Integer> reconstruir(Long idEmpresa) {
+        return Mono.fromCallable(() -> repository.reconstruir(idEmpresa, STATUS_RESUMO))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnSuccess(meses -> log.info("Resumo de contas a receber reconstruído ({} meses). Empresa: {}", meses, idEmpresa == null ? "todas" : idEmpresa))
+                .doOnError(e -> log.error("Falha ao reconstruir o resumo de contas a receber: {}", e.getMessage(), e))
+                .onErrorMap(e -> !(e instanceof BaseException), BaseException::handleGenericException);
+    }
+
+    private void recalcular(Long idEmpresa, LocalDate dataRef) {
+        repository.recalcularMes(idEmpresa, inicioDoMes(dataRef), dataRef.with(TemporalAdjusters.lastDayOfMonth()), STATUS_RESUMO);
+    }
+
+    private static LocalDate inicioDoMes(LocalDate data) {
+        return data.with(TemporalAdjusters.firstDayOfMonth());
+    }
+
+    private static ContaReceberPorMesResumeResponse toResponse(LocalDate dataRef, ResumoContaReceberMes resumo) {
+        return new ContaReceberPorMesResumeResponse(
+                dataRef,
+                resumo.getTotalEsperado(),
+                resumo.getTotalRecebido(),
+                resumo.getTotalEsperado().subtract(resumo.getTotalRecebido()));
+    }
+}
@@ -0,0 +1,282 @@
+package com.escola.admin.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Cache local, em disco, dos arquivos do serviço de arquivos. Um UUID sempre aponta para o mesmo conteúdo
+ * (arquivos não são alterados, apenas apagados). O índice fica em um Caffeine com peso em bytes; ao sair do índice
+ * (espaço, expiração, {@link #invalidar}) o arquivo é apagado do disco.
+ * <p>
+ * Cada nó tem o seu cache: {@link #invalidar} só remove o arquivo do nó que executou a exclusão. Nos demais, um
+ * arquivo excluído ainda pode ser servido até expirar: {@code ttl} sem acesso ou, mesmo com acessos, {@code max-age}
+ * após a gravação, que limita esse intervalo.
+ * <p>
+ * A leitura usa {@link FileChannel#map} (base64) ou leitura assíncrona em blocos (download binário). A gravação
+ * é feita em um arquivo temporário, movido para o nome final só quando completo: um leitor nunca vê arquivo parcial.
+ * <p>
+ * Cada instância grava em um subdiretório próprio (nome aleatório) dentro do diretório configurado, que pode ser
+ * compartilhado entre instâncias. O índice não sobrevive a um restart: no encerramento a instância apaga o seu
+ * subdiretório, sem tocar nos das outras (o de uma instância encerrada abruptamente fica para limpeza externa).
+ */
+@Service
+@Slf4j
+public class ArquivoCacheLocal {
+
+    private static final Pattern UUID_VALIDO = Pattern.compile("[A-Za-z0-9_-]{1,100}");
+    private static final String EXTENSAO = ".bin";
+    private static final String EXTENSAO_TEMPORARIO = ".tmp";
+    private static final int TAMANHO_BLOCO = 64 * 1024;
+
+    private final boolean habilitado;
+    private final Path diretorio;
+    private final Cache<String, Long> indice;
+
+    public ArquivoCacheLocal(
+            @Value("${application.storage.cache.enabled:true}") boolean habilitado,
+            @Value("${application.storage.cache.dir:${java.io.tmpdir}/escola-admin/arquivos}") String diretorio,
+            @Value("${application.storage.cache.max-size:1GB}") DataSize maxSize,
+            @Value("${application.storage.cache.ttl:PT6H}") Duration ttl,
+            @Value("${application.storage.cache.max-age:PT24H}") Duration maxAge,
+            MeterRegistry meterRegistry
+    ) throws IOException {
+        this.habilitado = habilitado;
+        this.diretorio = Paths.get(diretorio).toAbsolutePath().resolve("instancia-" + UUID.randomUUID());
+        this.indice = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .expireAfterAccess(ttl)
+                .expireAfterWrite(maxAge)
+                // Entradas expiradas saem (e o arquivo é apagado) mesmo sem novas leituras no cache.
+                .scheduler(Scheduler.systemScheduler())
+                .weigher((String uuid, Long tamanho) -> (int) Math.min(tamanho, Integer.MAX_VALUE))
+                // Síncrono, dentro da remoção da entrada: não corre com uma nova gravação do mesmo UUID.
+                .evictionListener((String uuid, Long tamanho, RemovalCause causa) -> apagar(uuid))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indice, "arquivo.disco");
+
+        if (habilitado) {
+            Files.createDirectories(this.diretorio);
+            log.info("Cache local de arquivos em '{}' (limite {}, ttl {}).", this.diretorio, maxSize, ttl);
+        }
+    }
+
+    /**
+     * Conteúdo em base64, lido do disco; vazio se o arquivo não estiver no cache.
+     */
+    public Mono<String> lerBase64(String uuid) {
+        if (!emCache(uuid)) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> {
+                    try (FileChannel canal = FileChannel.open(caminho(uuid), StandardOpenOption.READ)) {
+                        MappedByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+                        ByteBuffer base64 = Base64.getEncoder().encode(mapeado);
+                        return StandardCharsets.ISO_8859_1.decode(base64).toString();
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(NoSuchFileException.class, e -> Mono.empty());
+    }
+
+    /**
+     * Grava o conteúdo recebido em base64. Falhas são apenas registradas: o cache é opcional.
+     */
+    public Mono<Void> gravarBase64(String uuid, String base64) {
+        if (!habilitado || !uuidValido(uuid) || base64 == null || base64.isBlank()) {
+            return Mono.empty();
+        }
+        return Mono.fromRunnable(() -> {
+                    Path temporario = temporario(uuid);
+                    try {
+                        Files.write(temporario, Base64.getMimeDecoder().decode(base64));
+                        publicar(uuid, temporario);
+                    } catch (IOException | IllegalArgumentException e) {
+                        apagarTemporario(temporario);
+                        log.warn("Arquivo '{}' não foi gravado no cache local: {}", uuid, e.getMessage());
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    /**
+     * Conteúdo binário lido do disco em blocos; vazio (sem erro) se o arquivo não estiver no cache.
+     */
+    public Flux<DataBuffer> ler(String uuid) {
+        if (!emCache(uuid)) {
+            return Flux.empty();
+        }
+        return DataBufferUtils.read(caminho(uuid), DefaultDataBufferFactory.sharedInstance, TAMANHO_BLOCO)
+                .onErrorResume(NoSuchFileException.class, e -> Flux.empty());
+    }
+
+    public boolean emCache(String uuid) {
+        return habilitado && uuidValido(uuid) && indice.getIfPresent(uuid) != null;
+    }
+
+    /**
+     * Repassa o conteúdo vindo do serviço de arquivos e, em paralelo, grava-o no disco. O arquivo só entra no
+     * cache se o download terminar sem erro nem cancelamento.
+     */
+    public Flux<DataBuffer> gravando(String uuid, Flux<DataBuffer> conteudo) {
+        if (!habilitado || !uuidValido(uuid)) {
+            return conteudo;
+        }
+        return Flux.using(
+                () -> new Gravacao(uuid),
+                gravacao -> DataBufferUtils.write(conteudo, gravacao.canal, 0)
+                        .doOnComplete(gravacao::concluir),
+                Gravacao::encerrar);
+    }
+
+    /**
+     * Remove o arquivo do cache deste nó.
+     */
+    public void invalidar(String uuid) {
+        if (habilitado && uuidValido(uuid)) {
+            indice.asMap().compute(uuid, (chave, tamanho) -> {
+                apagar(chave);
+                return null;
+            });
+        }
+    }
+
+    private void publicar(String uuid, Path temporario) throws IOException {
+        long tamanho = Files.size(temporario);
+        try {
+            // Mover e indexar na mesma operação atômica da entrada, como a remoção.
+            indice.asMap().compute(uuid, (chave, anterior) -> {
+                try {
+                    Files.move(temporario, caminho(chave), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return tamanho;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void apagar(String uuid) {
+        try {
+            Files.deleteIfExists(caminho(uuid));
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo '{}' do cache local: {}", uuid, e.getMessage());
+        }
+    }
+
+    private static void apagarTemporario(Path temporario) {
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário '{}': {}", temporario, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        if (!habilitado) {
+            return;
+        }
+        indice.invalidateAll();
+        try {
+            limparDiretorio();
+            Files.deleteIfExists(diretorio);
+        } catch (IOException e) {
+            log.warn("Não foi possível remover o diretório do cache local '{}': {}", diretorio, e.getMessage());
+        }
+    }
+
+    private void limparDiretorio() throws IOException {
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio, "*{" + EXTENSAO + "," + EXTENSAO_TEMPORARIO + "}")) {
+            for (Path arquivo : arquivos) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    private Path caminho(String uuid) {
+        return diretorio.resolve(uuid + EXTENSAO);
+    }
+
+    private Path temporario(String uuid) {
+        return diretorio.resolve(uuid + "." + UUID.randomUUID() + EXTENSAO_TEMPORARIO);
+    }
+
+    /**
+     * Só UUIDs com caracteres seguros viram nome de arquivo; os demais simplesmente não são cacheados.
+     */
+    private static boolean uuidValido(String uuid) {
+        return uuid != null && UUID_VALIDO.matcher(uuid).matches();
+    }
+
+    /**
+     * Arquivo temporário de um download em andamento.
+     */
+    private final class Gravacao {
+
+        private final String uuid;
+        private final Path temporario;
+        private final AsynchronousFileChannel canal;
+        private volatile boolean concluida;
+
+        Gravacao(String uuid) throws IOException {
+            this.uuid = uuid;
+            this.temporario = temporario(uuid);
+            this.canal = AsynchronousFileChannel.open(temporario, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        }
+
+        void concluir() {
+            concluida = true;
+        }
+
+        void encerrar() {
+            try {
+                canal.close();
+                if (concluida) {
+                    publicar(uuid, temporario);
+                    return;
+                }
+            } catch (IOException e) {
+                log.warn("Arquivo '{}' não foi gravado no cache local: {}", uuid, e.getMessage());
+            }
+            apagarTemporario(temporario);
+        }
+    }
+}
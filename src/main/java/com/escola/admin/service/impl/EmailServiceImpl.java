@@ -22,6 +22,7 @@ import java.util.stream.Collectors;
 public class EmailServiceImpl implements EmailService {
 
     HttpGraphQlClient graphQlClient;
+    UtilServiceResiliencia resiliencia;
 
     /**
      * Executa uma mutação GraphQL e retorna um Mono<Void> em caso de sucesso.
@@ -32,9 +33,9 @@ public class EmailServiceImpl implements EmailService {
      * @return um Mono<Void> que completa em caso de sucesso ou emite um erro.
      */
     public Mono<Void> executeMutation(String mutation, Map<String, Object> variables) {
-        return graphQlClient.document(mutation)
-                .variables(variables)
-                .execute()
+        return resiliencia.mutacao("email.mutation", graphQlClient.document(mutation)
+                        .variables(variables)
+                        .execute())
                 // Aplica a validação como um passo de transformação
                 .transform(this::validateGraphQlResponse)
                 // Se a validação passar, descarta o corpo e sinaliza conclusão
@@ -51,9 +52,9 @@ public class EmailServiceImpl implements EmailService {
      * @return um Mono<ClientGraphQlResponse> contendo a resposta validada, ou um Mono.error.
      */
     public Mono<ClientGraphQlResponse> executeQuery(String query, Map<String, Object> variables) {
-        return graphQlClient.document(query)
-                .variables(variables)
-                .execute()
+        return resiliencia.consulta("email.query", graphQlClient.document(query)
+                        .variables(variables)
+                        .execute())
                 // Aplica a validação como um passo de transformação
                 .transform(this::validateGraphQlResponse);
     }
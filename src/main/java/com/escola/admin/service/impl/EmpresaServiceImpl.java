@@ -13,6 +13,7 @@ import com.escola.admin.repository.EmpresaRepository;
 import com.escola.admin.repository.UsuarioRepository;
 import com.escola.admin.service.EmpresaService;
 import com.escola.admin.service.FileStorageService;
+import com.escola.admin.service.LogoCacheService;
 import com.escola.admin.service.report.RelatorioBaseService;
 import com.escola.admin.util.HashUtils;
 import jakarta.transaction.Transactional;
@@ -39,6 +40,7 @@ public class EmpresaServiceImpl implements EmpresaService {
     UsuarioRepository usuarioRepository;
     EmpresaMapper mapper;
     FileStorageService storageService;
+    LogoCacheService logoCacheService;
     RelatorioBaseService relatorioBaseService;
 
     @Override
@@ -84,12 +86,14 @@ public class EmpresaServiceImpl implements EmpresaService {
                         return Mono.just(mapper.toResponse(empresa));
                     }
 
-                    // Tenta buscar o arquivo Base64
-                    return storageService.getFileAsBase64(empresa.getLogo().getUuid())
+                    // Tenta buscar o arquivo Base64 (cache de logos)
+                    return logoCacheService.buscar(empresa.getLogo())
+                            .map(LogoCacheService.LogoEmpresa::base64)
                             .doOnError(e -> log.error("Arquivo do logo não encontrado para a empresa com ID {} (UUID: {}): {}",
                                     id, empresa.getLogo().getUuid(), e.getMessage()))
                             // RESILIÊNCIA: Em caso de erro, "resgata" o fluxo retornando um Mono vazio.
                             .onErrorResume(e -> Mono.just(""))
+                            .defaultIfEmpty("")
                             // Mapeia a resposta com o Base64 obtido (ou a string vazia)
                             .map(logoBase64 -> mapper.toResponseWithLogo(empresa, logoBase64, empresa.getLogo().getMimeType()));
                 })
@@ -126,9 +130,8 @@ public class EmpresaServiceImpl implements EmpresaService {
     }
 
     public Mono<RelatorioBase64Response> emitirRelatorio(FiltroRelatorioRequest request, Usuario usuario) {
-        Mono<Page<Empresa>> entitiesMono = Mono.justOrEmpty(findByFiltro(request.filtro(), null));
         return relatorioBaseService.emitirRelatorioGenerico(
-                entitiesMono,
+                (ultimoId, pagina) -> repository.findRelatorioByFiltro(request.filtro(), ultimoId, pagina),
                 request,
                 usuario,
                 "Relatório de empresas", // Subtítulo
@@ -189,6 +192,7 @@ public class EmpresaServiceImpl implements EmpresaService {
         // Cenário 3: O hash é diferente, então o logo foi alterado
         // Deleta o arquivo antigo e salva o novo em um único fluxo reativo
         log.info("O hash do logo para {} é diferente. Apagando logo antigo e salvando novo arquivo.", empresa.getNomeFantasia());
+        logoCacheService.invalidar(empresa.getLogo());
         return storageService.deleteFile(empresa.getLogo().getUuid())
                 .flatMap(success -> saveNewLogoAndUpdate(empresa, request, fileHash));
     }
@@ -2,14 +2,23 @@ package com.escola.admin.service.impl;
 
 import com.escola.admin.exception.BaseException;
 import com.escola.admin.service.FileStorageService;
+import com.escola.admin.util.SingleFlight;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.graphql.ResponseError;
 import org.springframework.graphql.client.ClientGraphQlResponse;
 import org.springframework.graphql.client.HttpGraphQlClient;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
@@ -22,6 +31,11 @@ import java.util.stream.Collectors;
 public class FileStorageServiceImpl implements FileStorageService {
 
     HttpGraphQlClient graphQlClient;
+    WebClient utilServiceFilesWebClient;
+    ArquivoCacheLocal arquivoCacheLocal;
+    UtilServiceResiliencia resiliencia;
+    // Downloads simultâneos do mesmo arquivo (ex.: logo da empresa ao abrir o painel) viram uma única chamada.
+    SingleFlight<String, String> downloadsEmAndamento = new SingleFlight<>();
 
     @Override
     public Mono<String> saveFile(String contentBase64) {
@@ -33,9 +47,9 @@ public class FileStorageServiceImpl implements FileStorageService {
                   sendFileUpload(request: $request)
                 }
                 """;
-        return graphQlClient.document(MUTATION_SEND_FILE)
-                .variables(Map.of("request", request))
-                .execute()
+        return resiliencia.envio("sendFileUpload", graphQlClient.document(MUTATION_SEND_FILE)
+                        .variables(Map.of("request", request))
+                        .execute())
                 // Aplica a validação como um passo de transformação
                 .transform(this::validateGraphQlResponse)
                 .flatMap(clientGraphQlResponse -> {
@@ -51,27 +65,38 @@ public class FileStorageServiceImpl implements FileStorageService {
                   deleteFileByUUID(uuid: $uuid)
                 }
                 """;
-        return graphQlClient.document(MUTATION_SEND_FILE)
-                .variables(Map.of("uuid", uuid))
-                .execute()
+        return resiliencia.mutacao("deleteFileByUUID", graphQlClient.document(MUTATION_SEND_FILE)
+                        .variables(Map.of("uuid", uuid))
+                        .execute())
                 // Aplica a validação como um passo de transformação
                 .transform(this::validateGraphQlResponse)
                 .flatMap(clientGraphQlResponse -> {
                     Boolean result = clientGraphQlResponse.field("deleteFileByUUID").toEntity(Boolean.class);
                     return Mono.just(result != null && result);
-                });
+                })
+                .doOnSuccess(result -> arquivoCacheLocal.invalidar(uuid));
     }
 
+    /**
+     * Lê do cache local quando possível; na ausência, busca no serviço de arquivos e grava no cache em segundo plano.
+     * Chamadas simultâneas para o mesmo UUID compartilham a mesma busca remota.
+     */
     @Override
     public Mono<String> getFileAsBase64(String uuid) {
+        return arquivoCacheLocal.lerBase64(uuid)
+                .switchIfEmpty(downloadsEmAndamento.executar(uuid, () -> buscarBase64(uuid)
+                        .doOnNext(conteudo -> arquivoCacheLocal.gravarBase64(uuid, conteudo).subscribe())));
+    }
+
+    private Mono<String> buscarBase64(String uuid) {
         String QUERY_DOWNLOAD_FILE = """
                  query FetchFileByUUID($uuid: String!) {
                   fetchFileByUUID(uuid: $uuid)
                 }
                 """;
-        return graphQlClient.document(QUERY_DOWNLOAD_FILE)
-                .variables(Map.of("uuid", uuid))
-                .execute()
+        return resiliencia.consulta("fetchFileByUUID", graphQlClient.document(QUERY_DOWNLOAD_FILE)
+                        .variables(Map.of("uuid", uuid))
+                        .execute())
                 // Aplica a validação como um passo de transformação
                 .transform(this::validateGraphQlResponse)
                 .flatMap(clientGraphQlResponse -> {
@@ -80,6 +105,38 @@ public class FileStorageServiceImpl implements FileStorageService {
                 });
     }
 
+    @Override
+    public Mono<String> saveFile(Resource conteudo, String nomeArquivo) {
+        MultipartBodyBuilder multipart = new MultipartBodyBuilder();
+        multipart.part("file", conteudo)
+                .filename(nomeArquivo)
+                .contentType(MediaTypeFactory.getMediaType(nomeArquivo).orElse(MediaType.APPLICATION_OCTET_STREAM));
+
+        return resiliencia.envio("uploadArquivo", utilServiceFilesWebClient.post()
+                        .contentType(MediaType.MULTIPART_FORM_DATA)
+                        .body(BodyInserters.fromMultipartData(multipart.build()))
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .switchIfEmpty(Mono.error(new BaseException("O serviço de arquivos não retornou o identificador do arquivo.")))
+                .doOnError(e -> log.error("Falha ao enviar o arquivo '{}' ao serviço de arquivos: {}", nomeArquivo, e.getMessage()));
+    }
+
+    @Override
+    public Flux<DataBuffer> getFile(String uuid) {
+        return Flux.defer(() -> arquivoCacheLocal.emCache(uuid)
+                ? arquivoCacheLocal.ler(uuid).switchIfEmpty(Flux.defer(() -> buscarArquivo(uuid)))
+                : arquivoCacheLocal.gravando(uuid, buscarArquivo(uuid)));
+    }
+
+    private Flux<DataBuffer> buscarArquivo(String uuid) {
+        return resiliencia.transmissao(utilServiceFilesWebClient.get()
+                        .uri("/{uuid}", uuid)
+                        .accept(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class))
+                .doOnError(e -> log.error("Falha ao baixar o arquivo '{}' do serviço de arquivos: {}", uuid, e.getMessage()));
+    }
+
     private Mono<ClientGraphQlResponse> validateGraphQlResponse(Mono<ClientGraphQlResponse> responseMono) {
         return responseMono.flatMap(response -> {
             if (!response.getErrors().isEmpty()) {
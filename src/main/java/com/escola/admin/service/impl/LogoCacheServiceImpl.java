@@ -0,0 +1,92 @@
+package com.escola.admin.service.impl;
+
+import com.escola.admin.model.entity.Logo;
+import com.escola.admin.service.FileStorageService;
+import com.escola.admin.service.LogoCacheService;
+import com.escola.admin.util.UtilBase64;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Implementação com Caffeine assíncrono: a entrada guarda o {@code CompletableFuture} da busca, então requisições
+ * simultâneas pelo mesmo logo aguardam a mesma chamada ao serviço de arquivos. Buscas com erro não ficam no cache.
+ * <p>
+ * A chave é {@code uuid:hash}: um logo novo recebe outro UUID (e outro hash), portanto nunca é confundido com o antigo.
+ */
+@Service
+@Slf4j
+public class LogoCacheServiceImpl implements LogoCacheService {
+
+    private final FileStorageService storageService;
+    private final AsyncCache<String, LogoEmpresa> cache;
+
+    public LogoCacheServiceImpl(
+            FileStorageService storageService,
+            @Value("${application.branding.logo-cache.ttl:PT1H}") Duration ttl,
+            @Value("${application.branding.logo-cache.max-size:500}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.storageService = storageService;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "empresa.logo");
+    }
+
+    @Override
+    public Mono<LogoEmpresa> buscar(Logo logo) {
+        if (logo == null || logo.getUuid() == null) {
+            return Mono.empty();
+        }
+        // suppressCancel: o cancelamento de um assinante não pode cancelar a busca compartilhada.
+        // toFuture() assina fora da cadeia: o contexto (token) de quem disparou a busca é repassado explicitamente.
+        return Mono.deferContextual(contexto -> Mono.fromFuture(() -> cache.get(chave(logo),
+                (chave, executor) -> carregar(logo).contextWrite(contexto).toFuture()), true));
+    }
+
+    @Override
+    public void invalidar(Logo logo) {
+        if (logo != null && logo.getUuid() != null) {
+            cache.synchronous().invalidate(chave(logo));
+            log.debug("Logo '{}' removido do cache.", logo.getUuid());
+        }
+    }
+
+    private Mono<LogoEmpresa> carregar(Logo logo) {
+        // Copia os campos: a entidade pode ser alterada depois (troca de logo) enquanto a busca está em andamento.
+        String uuid = logo.getUuid();
+        String hash = logo.getHash();
+        String mimeType = logo.getMimeType();
+        log.debug("Buscando logo '{}' no serviço de arquivos.", uuid);
+        return storageService.getFileAsBase64(uuid)
+                .map(base64 -> new LogoEmpresa(uuid, hash, mimeType, base64, decodificar(uuid, base64)));
+    }
+
+    private static ImageData decodificar(String uuid, String base64) {
+        if (base64 == null || base64.isBlank()) {
+            return null;
+        }
+        try {
+            return ImageDataFactory.create(UtilBase64.getImagem(base64));
+        } catch (Exception e) {
+            log.warn("Logo '{}' não pôde ser decodificado para o PDF: {}", uuid, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String chave(Logo logo) {
+        return logo.getUuid() + ":" + logo.getHash();
+    }
+}
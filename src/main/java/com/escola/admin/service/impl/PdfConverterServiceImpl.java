@@ -1,49 +1,83 @@
 package com.escola.admin.service.impl;
 
 import com.escola.admin.service.PdfConverterService;
+import com.escola.admin.util.HashUtils;
 import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Jsoup;
 import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.DataNode;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
+/**
+ * Conversão do HTML dos contratos (editor Quill) para PDF com o openhtmltopdf.
+ * <p>
+ * O CSS do editor é lido uma única vez, na criação do bean, via {@code getInputStream()} (funciona também dentro
+ * do jar, ao contrário de {@code getFile()}), e incluído como nó {@code <style>} no documento já analisado:
+ * os ~37 KB de CSS não passam pelo parser de HTML a cada conversão. O renderizador usa o modo rápido
+ * ({@code useFastMode}) do openhtmltopdf.
+ */
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
-@RequiredArgsConstructor
 @Slf4j
 public class PdfConverterServiceImpl implements PdfConverterService {
 
+    static final String CSS_EDITOR = "static/quill.snow.css";
+
+    String css;
+    String versaoEstilo;
+
+    public PdfConverterServiceImpl() {
+        this.css = carregarCss();
+        this.versaoEstilo = HashUtils.sha256Hex(css).substring(0, 16);
+    }
+
+    @Override
+    public String versaoEstilo() {
+        return versaoEstilo;
+    }
+
     /**
      * Converte uma string HTML em um arquivo PDF e retorna o conteúdo como uma string Base64.
      *
      * @param htmlContent A string contendo o HTML a ser convertido.
      * @return Uma string Base64 que representa o arquivo PDF.
      */
+    @Override
     public String convertHtmlToPdfBase64(String htmlContent) throws IOException {
+        return Base64.getEncoder().encodeToString(convertHtmlToPdf(htmlContent));
+    }
 
-        ByteArrayOutputStream os = new ByteArrayOutputStream();
-//        String cleanedHtmlContent = htmlContent.replaceAll("&nbsp;", " ");
+    /**
+     * Converte uma string HTML em um arquivo PDF.
+     *
+     * @param htmlContent A string contendo o HTML a ser convertido.
+     * @return O conteúdo do arquivo PDF.
+     */
+    @Override
+    public byte[] convertHtmlToPdf(String htmlContent) throws IOException {
 
-        String styledHtmlContent = injectCssIntoHtml(htmlContent);
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
         try {
             // 1. Analisar a string HTML para um objeto Document usando Jsoup
             // Jsoup é tolerante com HTML incompleto e entidades como &nbsp;
-            org.jsoup.nodes.Document jsoupDoc = Jsoup.parse(styledHtmlContent);
+            org.jsoup.nodes.Document jsoupDoc = Jsoup.parse(htmlContent);
+            aplicarEstilo(jsoupDoc, htmlContent);
             Document w3cDoc = new W3CDom().fromJsoup(jsoupDoc);
 
             // 2. Usar o objeto Document no PdfRendererBuilder
             PdfRendererBuilder builder = new PdfRendererBuilder();
+            builder.useFastMode();
             builder.withW3cDocument(w3cDoc, "/"); // O segundo parâmetro é a base URI
             builder.toStream(os);
 
@@ -55,40 +89,28 @@ public class PdfConverterServiceImpl implements PdfConverterService {
             throw new IOException("Erro ao converter HTML para PDF.", e);
         }
 
-        // 4. Codificar o PDF para Base64
-        byte[] pdfBytes = os.toByteArray();
-        return Base64.getEncoder().encodeToString(pdfBytes);
+        return os.toByteArray();
     }
 
-    // O método injectCssIntoHtml que usamos anteriormente
-    private String injectCssIntoHtml(String htmlContent) {
-        String styleBlock = getStyleBlock();
-        if (htmlContent.contains("</head>")) {
-            return htmlContent.replaceFirst("</head>", styleBlock + "</head>");
+    /**
+     * Inclui o CSS do editor no {@code <head>}. Conteúdo sem {@code <head>} nem {@code <body>} é um fragmento do
+     * editor: o corpo recebe a classe {@code ql-editor}, como no próprio Quill.
+     */
+    private void aplicarEstilo(org.jsoup.nodes.Document jsoupDoc, String htmlContent) {
+        if (!css.isEmpty()) {
+            jsoupDoc.head().appendElement("style").appendChild(new DataNode(css));
         }
-        if (htmlContent.contains("<body>")) {
-            return htmlContent.replaceFirst("<body>", "<head>" + styleBlock + "</head><body>");
+        if (!htmlContent.contains("</head>") && !htmlContent.contains("<body>")) {
+            jsoupDoc.body().addClass("ql-editor");
         }
-        return "<html><head>" + styleBlock + "</head><body class=\"ql-editor\"> " + htmlContent + " </body></html>";
     }
 
-    private String getStyleBlock() {
-        try {
-            // Cria um ClassPathResource para o arquivo CSS
-            ClassPathResource resource = new ClassPathResource("static/quill.snow.css");
-
-            // Obtém o Path do recurso
-            Path cssPath = resource.getFile().toPath();
-
-            // Lê todo o conteúdo do arquivo como uma String
-            String cssContent = Files.readString(cssPath);
-
-            // Retorna a tag <style> com o conteúdo
-            return "<style>" + cssContent + "</style>";
+    private static String carregarCss() {
+        try (InputStream in = new ClassPathResource(CSS_EDITOR).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
         } catch (IOException e) {
-            // Em caso de erro na leitura do arquivo, imprima o stack trace para depuração
-            e.printStackTrace();
-            // Retorna uma string vazia ou um valor padrão para evitar erros
+            // Sem o CSS o PDF ainda é gerado, apenas sem a formatação do editor.
+            log.error("Não foi possível carregar o CSS '{}': {}", CSS_EDITOR, e.getMessage(), e);
             return "";
         }
     }
@@ -6,15 +6,18 @@ import com.escola.admin.model.entity.TipoEmail;
 import com.escola.admin.model.entity.Usuario;
 import com.escola.admin.model.mapper.EmpresaMapper;
 import com.escola.admin.model.mapper.UsuarioMapper;
+import com.escola.admin.model.projection.UsuarioRelatorio;
+import com.escola.admin.model.projection.UsuarioRole;
 import com.escola.admin.model.request.UsuarioRequest;
 import com.escola.admin.model.request.report.FiltroRelatorioRequest;
 import com.escola.admin.model.response.AuthenticationResponse;
 import com.escola.admin.model.response.RelatorioBase64Response;
 import com.escola.admin.repository.UsuarioRepository;
 import com.escola.admin.security.JwtService;
+import com.escola.admin.security.UsuarioDetailsCache;
 import com.escola.admin.service.EmailService;
 import com.escola.admin.service.EmpresaService;
-import com.escola.admin.service.FileStorageService;
+import com.escola.admin.service.LogoCacheService;
 import com.escola.admin.service.UsuarioService;
 import com.escola.admin.service.report.RelatorioBaseService;
 import com.escola.admin.util.PasswordGenerator;
@@ -35,6 +38,8 @@ import reactor.core.publisher.Mono;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
@@ -47,10 +52,11 @@ public class UsuarioServiceImpl implements UsuarioService {
     UsuarioMapper mapper;
     EmailService emailService;
     PasswordEncoder passwordEncoder;
-    FileStorageService storageService;
+    LogoCacheService logoCacheService;
     EmpresaMapper empresaMapper;
     JwtService jwtService;
     RelatorioBaseService relatorioBaseService;
+    UsuarioDetailsCache usuarioDetailsCache;
 
     String MUTATION_SEND_EMAIL = """
             mutation SendOnboardingEmail($request: EmailRequest!) {
@@ -72,6 +78,8 @@ public class UsuarioServiceImpl implements UsuarioService {
         // 3. Persiste o usuário no banco de dados (PONTO ÚNICO DE PERSISTÊNCIA).
         Mono<UserWithPassword> savedMono = validatedMono
                 .flatMap(uwp -> Mono.fromCallable(() -> repository.save(uwp.usuario()))
+                        // Roles, status ou empresa podem ter mudado: descarta o principal em cache.
+                        .doOnNext(savedUser -> usuarioDetailsCache.invalidateById(savedUser.getId()))
                         .map(savedUser -> new UserWithPassword(savedUser, uwp.plainPassword())));
 
         // 4. Lida com efeitos colaterais (envio de e-mail) e retorna o usuário final.
@@ -187,7 +195,8 @@ public class UsuarioServiceImpl implements UsuarioService {
                         usuario.setPrecisaAlterarSenha(false); // <-- Ponto chave!
 
                         // Salva as alterações
-                        return Mono.fromCallable(() -> repository.save(usuario));
+                        return Mono.fromCallable(() -> repository.save(usuario))
+                                .doOnNext(savedUser -> usuarioDetailsCache.invalidate(savedUser.getUsername()));
                     })
                     .then(); // Converte para Mono<Void> no sucesso
         });
@@ -212,6 +221,7 @@ public class UsuarioServiceImpl implements UsuarioService {
 
                             // Salva o usuário e, em seguida, envia o e-mail.
                             return Mono.fromCallable(() -> repository.save(usuario))
+                                    .doOnNext(savedUser -> usuarioDetailsCache.invalidate(savedUser.getUsername()))
                                     .flatMap(savedUser -> sendResetPasswordEmail(savedUser, plainPassword)
                                             // Se o e-mail falhar, logamos, mas não quebramos a operação.
                                             .onErrorResume(e -> {
@@ -313,11 +323,13 @@ public class UsuarioServiceImpl implements UsuarioService {
 //                    }
                     // Gera o token especial
                     String token = jwtService.generateImpersonationToken(targetUser, impersonatorAuth);
-                    return storageService.getFileAsBase64(targetUser.getEmpresa().getLogo().getUuid())
+                    return logoCacheService.buscar(targetUser.getEmpresa().getLogo())
+                            .map(LogoCacheService.LogoEmpresa::base64)
                             .doOnError(e -> log.error("Arquivo do logo não encontrado para a empresa com ID {} (UUID: {}): {}",
                                     targetUser.getEmpresa().getId(), targetUser.getEmpresa().getLogo().getUuid(), e.getMessage()))
                             // RESILIÊNCIA: Em caso de erro, "resgata" o fluxo retornando um Mono vazio.
                             .onErrorResume(e -> Mono.just(""))
+                            .defaultIfEmpty("")
                             // Mapeia a resposta com o Base64 obtido (ou a string vazia)
                             .map(logoBase64 -> {
                                 AuthenticationResponse authenticationResponse = AuthenticationResponse.builder()
@@ -338,9 +350,8 @@ public class UsuarioServiceImpl implements UsuarioService {
     }
 
     public Mono<RelatorioBase64Response> emitirRelatorio(FiltroRelatorioRequest request, Usuario usuario) {
-        Mono<Page<Usuario>> entitiesMono = Mono.justOrEmpty(findByFiltro(request.filtro(), null));
         return relatorioBaseService.emitirRelatorioGenerico(
-                entitiesMono,
+                (ultimoId, pagina) -> buscarPaginaRelatorio(request.filtro(), ultimoId, pagina),
                 request,
                 usuario,
                 "Relatório de usuários", // Subtítulo
@@ -349,6 +360,25 @@ public class UsuarioServiceImpl implements UsuarioService {
         );
     }
 
+    /**
+     * Página do relatório de usuários: uma consulta para as colunas e outra para as roles de todos os usuários
+     * da página (em vez de carregar a coleção EAGER de cada entidade).
+     */
+    private List<UsuarioRelatorio> buscarPaginaRelatorio(String filtro, Long ultimoId, Pageable pageable) {
+        List<UsuarioRelatorio> pagina = repository.findRelatorioByFiltro(filtro, ultimoId, pageable);
+        if (pagina.isEmpty()) {
+            return pagina;
+        }
+
+        List<Long> ids = pagina.stream().map(UsuarioRelatorio::id).toList();
+        Map<Long, Set<Role>> rolesPorUsuario = repository.findRolesByUsuarioIdIn(ids).stream()
+                .collect(Collectors.groupingBy(UsuarioRole::idUsuario,
+                        Collectors.mapping(UsuarioRole::role, Collectors.toSet())));
+        return pagina.stream()
+                .map(usuario -> usuario.comRoles(rolesPorUsuario.getOrDefault(usuario.id(), Set.of())))
+                .toList();
+    }
+
     /**
      * Classe auxiliar interna para carregar o usuário e a senha em texto plano (se for novo)
      * através do fluxo reativo.
@@ -0,0 +1,189 @@
+package com.escola.admin.service.impl;
+
+import com.escola.admin.exception.BaseException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Proteções das chamadas ao util-service (GraphQL e API de arquivos):
+ * <ul>
+ *     <li>circuit breaker: com o util-service fora do ar ou lento, as chamadas falham imediatamente por um
+ *     período em vez de ocupar conexões e threads esperando o timeout;</li>
+ *     <li>retentativas com backoff exponencial e jitter, apenas para consultas (idempotentes) e apenas para
+ *     falhas de transporte (conexão recusada/encerrada, timeout, 502/503/504).</li>
+ * </ul>
+ * Erros de negócio (erros GraphQL, 4xx) não contam como falha do util-service nem são repetidos.
+ * <p>
+ * Os downloads em blocos ({@link #transmissao}) e os uploads ({@link #envio}) usam um circuit breaker próprio, sem
+ * limite de chamada lenta: a duração de uma transferência acompanha o tamanho do arquivo, e arquivos grandes não
+ * podem abrir o circuito das demais chamadas (logos, e-mail).
+ * <p>
+ * Métricas: {@code utilservice.chamadas} (por operação e resultado), {@code utilservice.retentativas},
+ * {@code utilservice.circuitbreaker.estado} (por circuito: 0 fechado, 1 aberto, 2 meio-aberto) e
+ * {@code utilservice.circuitbreaker.rejeitadas}.
+ */
+@Service
+@Slf4j
+public class UtilServiceResiliencia {
+
+    private final CircuitBreaker circuitBreaker;
+    private final CircuitBreaker circuitBreakerTransmissao;
+    private final Retry retentativas;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejeitadas;
+
+    public UtilServiceResiliencia(
+            @Value("${util.service.retry.max-attempts:2}") int maxRetentativas,
+            @Value("${util.service.retry.backoff:PT0.2S}") Duration backoff,
+            @Value("${util.service.circuit-breaker.failure-rate-threshold:50}") float taxaFalhas,
+            @Value("${util.service.circuit-breaker.sliding-window-size:20}") int janela,
+            @Value("${util.service.circuit-breaker.minimum-number-of-calls:10}") int minimoChamadas,
+            @Value("${util.service.circuit-breaker.wait-duration-in-open-state:PT30S}") Duration esperaAberto,
+            @Value("${util.service.circuit-breaker.slow-call-duration-threshold:PT5S}") Duration chamadaLenta,
+            MeterRegistry meterRegistry
+    ) {
+        this.meterRegistry = meterRegistry;
+        // O padrão do Resilience4j (100% das chamadas acima de 60 s) ainda abriria o circuito com downloads grandes.
+        CircuitBreakerConfig configTransmissao = CircuitBreakerConfig.custom()
+                .failureRateThreshold(taxaFalhas)
+                .slowCallRateThreshold(100)
+                .slowCallDurationThreshold(Duration.ofDays(1))
+                .slidingWindowSize(janela)
+                .minimumNumberOfCalls(minimoChamadas)
+                .waitDurationInOpenState(esperaAberto)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .recordException(UtilServiceResiliencia::falhaTransitoria)
+                .build();
+        this.circuitBreaker = circuito("util-service", CircuitBreakerConfig.from(configTransmissao)
+                .slowCallRateThreshold(taxaFalhas)
+                .slowCallDurationThreshold(chamadaLenta)
+                .build());
+        this.circuitBreakerTransmissao = circuito("util-service-transmissao", configTransmissao);
+
+        Counter retentativasCounter = Counter.builder("utilservice.retentativas").register(meterRegistry);
+        this.retentativas = Retry.backoff(maxRetentativas, backoff)
+                .maxBackoff(backoff.multipliedBy(10))
+                .jitter(0.5)
+                .filter(UtilServiceResiliencia::falhaTransitoria)
+                .doBeforeRetry(sinal -> {
+                    retentativasCounter.increment();
+                    log.warn("Repetindo chamada ao util-service (tentativa {}): {}", sinal.totalRetries() + 1, sinal.failure().getMessage());
+                })
+                .onRetryExhaustedThrow((spec, sinal) -> sinal.failure());
+
+        this.rejeitadas = Counter.builder("utilservice.circuitbreaker.rejeitadas").register(meterRegistry);
+    }
+
+    private CircuitBreaker circuito(String nome, CircuitBreakerConfig config) {
+        CircuitBreaker cb = CircuitBreaker.of(nome, config);
+        cb.getEventPublisher()
+                .onStateTransition(evento -> log.warn("Circuit breaker '{}': {}", nome, evento.getStateTransition()));
+        Gauge.builder("utilservice.circuitbreaker.estado", cb, c -> switch (c.getState()) {
+                    case CLOSED -> 0;
+                    case OPEN, FORCED_OPEN -> 1;
+                    case HALF_OPEN -> 2;
+                    default -> 3;
+                })
+                .tag("circuito", nome)
+                .register(meterRegistry);
+        return cb;
+    }
+
+    /**
+     * Consulta (idempotente): circuit breaker e retentativas em falhas de transporte.
+     */
+    public <T> Mono<T> consulta(String operacao, Mono<T> chamada) {
+        return medir(operacao, chamada
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .retryWhen(retentativas))
+                .onErrorMap(CallNotPermittedException.class, this::indisponivel);
+    }
+
+    /**
+     * Mutação (não idempotente): apenas o circuit breaker, sem retentativas.
+     */
+    public <T> Mono<T> mutacao(String operacao, Mono<T> chamada) {
+        return medir(operacao, chamada.transformDeferred(CircuitBreakerOperator.of(circuitBreaker)))
+                .onErrorMap(CallNotPermittedException.class, this::indisponivel);
+    }
+
+    /**
+     * Transmissão em blocos (download): apenas o circuit breaker, o próprio das transmissões (sem limite de
+     * chamada lenta); repetir depois de parte do conteúdo já entregue duplicaria os dados.
+     */
+    public <T> Flux<T> transmissao(Flux<T> chamada) {
+        return chamada.transformDeferred(CircuitBreakerOperator.of(circuitBreakerTransmissao))
+                .onErrorMap(CallNotPermittedException.class, this::indisponivel);
+    }
+
+    /**
+     * Envio de arquivo (upload, não idempotente): sem retentativas, no circuit breaker das transmissões.
+     */
+    public <T> Mono<T> envio(String operacao, Mono<T> chamada) {
+        return medir(operacao, chamada.transformDeferred(CircuitBreakerOperator.of(circuitBreakerTransmissao)))
+                .onErrorMap(CallNotPermittedException.class, this::indisponivel);
+    }
+
+    private <T> Mono<T> medir(String operacao, Mono<T> chamada) {
+        return Mono.defer(() -> {
+            Timer.Sample amostra = Timer.start(meterRegistry);
+            return chamada
+                    .doOnError(e -> amostra.stop(timer(operacao, "erro")))
+                    .doFinally(sinal -> {
+                        if (sinal != SignalType.ON_ERROR) {
+                            amostra.stop(timer(operacao, sinal == SignalType.CANCEL ? "cancelada" : "sucesso"));
+                        }
+                    });
+        });
+    }
+
+    private Timer timer(String operacao, String resultado) {
+        return Timer.builder("utilservice.chamadas")
+                .tag("operacao", operacao)
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+
+    private Throwable indisponivel(CallNotPermittedException e) {
+        rejeitadas.increment();
+        return new BaseException("Serviço auxiliar (util-service) indisponível no momento. Tente novamente em alguns instantes.", e);
+    }
+
+    /**
+     * Falha do util-service ou da rede, não da requisição. Percorre as causas: o cliente GraphQL encapsula
+     * os erros de transporte. Esgotamento do pool de conexões chega como {@link WebClientRequestException}.
+     */
+    static boolean falhaTransitoria(Throwable erro) {
+        for (Throwable causa = erro; causa != null; causa = causa.getCause()) {
+            if (causa instanceof WebClientResponseException resposta) {
+                int status = resposta.getStatusCode().value();
+                return status == 502 || status == 503 || status == 504;
+            }
+            if (causa instanceof WebClientRequestException
+                    || causa instanceof PrematureCloseException
+                    || causa instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,67 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.exception.BaseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+
+/**
+ * Grava o conteúdo de um relatório em um arquivo temporário (em vez de um buffer em memória que cresce com o
+ * relatório) e monta o nó de resposta {@code filename}/{@code filetype}/{@code content} usado pelos geradores.
+ * <p>
+ * O conteúdo já é codificado em base64 enquanto é gravado: a única cópia em memória é a {@code String} base64 da
+ * resposta, lida do arquivo no fim (sem o {@code byte[]} do arquivo bruto nem o buffer intermediário da codificação).
+ */
+@Slf4j
+final class ArquivoRelatorio {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ArquivoRelatorio() {
+    }
+
+    @FunctionalInterface
+    interface Escrita {
+        void escrever(OutputStream out) throws BaseException, IOException;
+    }
+
+    static ObjectNode gerar(String nomeArquivo, String extensao, String filetype, Escrita escrita) throws BaseException {
+        Path temporario = null;
+        try {
+            temporario = Files.createTempFile("relatorio-", "." + extensao);
+            try (OutputStream out = Base64.getEncoder().wrap(new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                escrita.escrever(out);
+            }
+
+            ObjectNode arquivo = MAPPER.createObjectNode();
+            arquivo.put("filename", nomeArquivo + "." + extensao);
+            arquivo.put("filetype", filetype);
+            // Base64 é ASCII: lido como ISO-8859-1, cada byte do arquivo vira um caractere.
+            arquivo.put("content", Files.readString(temporario, StandardCharsets.ISO_8859_1));
+            return arquivo;
+        } catch (IOException e) {
+            throw new BaseException("Falha ao gravar o relatório: " + e.getMessage(), e);
+        } finally {
+            apagar(temporario);
+        }
+    }
+
+    private static void apagar(Path arquivo) {
+        if (arquivo == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Não foi possível apagar o arquivo temporário do relatório {}: {}", arquivo, e.getMessage());
+        }
+    }
+}
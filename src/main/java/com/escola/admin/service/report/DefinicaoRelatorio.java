@@ -0,0 +1,25 @@
+package com.escola.admin.service.report;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Colunas de um relatório em formato de listagem, compartilhadas por todos os formatos de arquivo
+ * (ver {@link DefinicoesRelatorio}).
+ *
+ * @param titulo     título da planilha (nome da aba nos formatos ODS/XLSX).
+ * @param cabecalhos títulos das colunas.
+ * @param larguras   largura relativa de cada coluna no PDF, em percentual.
+ * @param paraLinha  converte um registro nos valores das células, na ordem dos cabeçalhos.
+ */
+public record DefinicaoRelatorio<T>(
+        String titulo,
+        String[] cabecalhos,
+        Integer[] larguras,
+        Function<T, String[]> paraLinha
+) {
+
+    public List<String> listaCabecalhos() {
+        return List.of(cabecalhos);
+    }
+}
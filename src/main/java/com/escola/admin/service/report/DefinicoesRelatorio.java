@@ -0,0 +1,108 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.model.projection.EmpresaRelatorio;
+import com.escola.admin.model.projection.UsuarioRelatorio;
+import com.escola.admin.model.projection.auxiliar.TurmaRelatorio;
+import com.escola.admin.model.projection.cliente.ClienteRelatorio;
+import com.escola.admin.model.projection.cliente.ContratoRelatorio;
+import com.escola.admin.util.DataUtils;
+import com.escola.admin.util.MoedaUtils;
+
+import java.util.stream.Collectors;
+
+/**
+ * Definição única das colunas de cada relatório. Os beans de PDF, ODS, CSV e XLSX
+ * ({@code ReportPdfConfig}, {@code ReportOdsConfig}, {@code ReportCsvConfig} e {@code ReportXlsxConfig})
+ * são montados a partir delas, garantindo o mesmo conteúdo em qualquer formato.
+ * <p>
+ * As linhas são lidas de projeções ({@code model.projection}) com apenas as colunas usadas aqui;
+ * ao incluir uma coluna, inclua também o campo na projeção e na consulta {@code findRelatorioByFiltro}.
+ */
+final class DefinicoesRelatorio {
+
+    static final DefinicaoRelatorio<EmpresaRelatorio> EMPRESA = new DefinicaoRelatorio<>(
+            "Relatório de Empresas",
+            new String[]{"Nome Fantasia", "Razão Social", "CNPJ", "Inscrição Estadual", "E-mail", "Telefone"},
+            new Integer[]{25, 30, 15, 10, 10, 10},
+            entity -> new String[]{
+                    entity.nomeFantasia(),
+                    entity.razaoSocial(),
+                    entity.cnpj(),
+                    entity.inscricaoEstadual(),
+                    entity.email(),
+                    entity.telefone()
+            }
+    );
+
+    static final DefinicaoRelatorio<ClienteRelatorio> CLIENTE = new DefinicaoRelatorio<>(
+            "Relatório de Clientes",
+            new String[]{"Nome", "Data de Nascimento", "CPF", "RG", "Endereço", "E-mail", "Profissão", "Local de Trabalho", "Status"},
+            new Integer[]{20, 10, 10, 10, 10, 10, 10, 10, 10},
+            entity -> new String[]{
+                    entity.nome(),
+                    DataUtils.formatar(entity.dataNascimento()),
+                    entity.docCPF(),
+                    entity.docRG(),
+                    entity.endereco(),
+                    entity.email(),
+                    entity.profissao(),
+                    entity.localTrabalho(),
+                    entity.statusCliente().toString(),
+            }
+    );
+
+    static final DefinicaoRelatorio<UsuarioRelatorio> USUARIO = new DefinicaoRelatorio<>(
+            "Relatório de Usuários",
+            new String[]{"Nome", "Usuário", "Empresa", "E-mail", "Papeis"},
+            new Integer[]{20, 20, 20, 10, 30},
+            entity -> new String[]{
+                    "%s %s".formatted(entity.firstname(), entity.lastname()),
+                    entity.username(),
+                    entity.nomeEmpresa() != null ? entity.nomeEmpresa() : "",
+                    entity.email(),
+                    entity.roles().stream()
+                            .map(Enum::toString)
+                            .collect(Collectors.joining(", "))
+            }
+    );
+
+    static final DefinicaoRelatorio<TurmaRelatorio> TURMA = new DefinicaoRelatorio<>(
+            "Relatório de Turmas",
+            new String[]{"Código", "Nome", "Curso", "Período", "Professor(a)", "Status"},
+            new Integer[]{20, 20, 20, 10, 20, 10},
+            entity -> new String[]{
+                    entity.codigo(),
+                    entity.nome(),
+                    entity.nomeCurso(),
+                    entity.anoPeriodo(),
+                    entity.professor(),
+                    entity.status().toString(),
+            }
+    );
+
+    static final DefinicaoRelatorio<ContratoRelatorio> CONTRATO = new DefinicaoRelatorio<>(
+            "Relatório de Contratos",
+            new String[]{"Número do Contrato",
+                    "Cliente",
+                    "Data início",
+                    "Data fim",
+                    "Valor",
+                    "Status",
+                    "Período Pagamento",
+                    "Descrição"},
+            new Integer[]{10, 20, 7, 7, 7, 7, 10, 32},
+            entity -> new String[]{
+                    entity.numeroContrato(),
+                    entity.nomeCliente(),
+                    DataUtils.formatar(entity.dataInicio()),
+                    DataUtils.formatar(entity.dataFim()),
+                    MoedaUtils.formatarParaReal(entity.valorTotal()),
+                    entity.statusContrato().toString(),
+                    entity.periodoPagamento(),
+                    entity.observacoes(),
+            }
+    );
+
+    private DefinicoesRelatorio() {
+    }
+}
@@ -0,0 +1,26 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.request.report.MetadadosRelatorioRequest;
+import com.escola.admin.util.CsvUtil;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Gerador de CSV em formato de listagem: uma linha de texto por registro, escrita à medida que é lida
+ * (ver {@link CsvUtil}). É o formato mais barato de gerar; indicado para exportações grandes.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+public class GenericReportCsv<T> implements ReportGenerator<T> {
+
+    DefinicaoRelatorio<T> definicao;
+
+    @Override
+    public ObjectNode build(Iterable<T> entities, MetadadosRelatorioRequest metadados) throws BaseException {
+        return ArquivoRelatorio.gerar(metadados.nomeArquivo(), "csv", ReportService.TEXT_CSV,
+                out -> CsvUtil.gerarCsv(definicao.listaCabecalhos(), entities, definicao.paraLinha(), out));
+    }
+}
@@ -5,65 +5,74 @@ import com.escola.admin.model.request.report.MetadadosRelatorioRequest;
 import com.escola.admin.util.pdf.LocalPdfParameters;
 import com.escola.admin.util.pdf.LocalPdfTable;
 import com.escola.admin.util.pdf.LocalPdfUtil;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.BinaryNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
-import java.util.function.Function;
-
+/**
+ * Gerador de relatório PDF em formato de listagem. O bean é compartilhado entre requisições e não guarda estado:
+ * cada chamada a {@link #build} monta o documento em um {@link LocalPdfUtil} próprio,
+ * permitindo gerar vários relatórios em paralelo.
+ * <p>
+ * As linhas são consumidas do {@link Iterable} sob demanda e a tabela é descarregada a cada
+ * {@value #LINHAS_POR_DESCARGA} linhas, com o documento gravado em um arquivo temporário ({@link ArquivoRelatorio}):
+ * a memória usada não cresce com a quantidade de registros.
+ */
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @RequiredArgsConstructor
+@Slf4j
 public class GenericReportPdf<T> implements ReportGenerator<T> {
 
-    LocalPdfUtil pdfUtil;
-    String[] cabecalhos;
-    Integer[] colunas;
-    Function<T, String[]> entityToRowMapper;
+    private static final int LINHAS_POR_DESCARGA = 100;
 
-    @Override
-    public ObjectNode build(List<T> entities, MetadadosRelatorioRequest metadados) throws BaseException {
-        pdfUtil.iniciarRelatorio(criarParameters(metadados));
-        pdfUtil.addLineSeparator();
+    DefinicaoRelatorio<T> definicao;
 
-        pdfUtil.addLinhaEmBranco();
-        pdfUtil.addParagrafo(metadados.subtitulo());
-        pdfUtil.addLinhaEmBranco(1.0f);
+    @Override
+    public ObjectNode build(Iterable<T> entities, MetadadosRelatorioRequest metadados) throws BaseException {
+        return ArquivoRelatorio.gerar(metadados.nomeArquivo(), "pdf", ReportService.APPLICATION_PDF, out -> {
+            LocalPdfUtil pdfUtil = new LocalPdfUtil();
+            pdfUtil.iniciarRelatorio(criarParameters(metadados), out);
+            pdfUtil.addRodapeEmCadaPagina(metadados.nomeUsuario());
+            pdfUtil.addLineSeparator();
 
-        addCorpo(entities);
-        addRodape(metadados.nomeUsuario());
+            pdfUtil.addLinhaEmBranco();
+            pdfUtil.addParagrafo(metadados.subtitulo());
+            pdfUtil.addLinhaEmBranco(1.0f);
 
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode arquivo = mapper.createObjectNode();
-        arquivo.put("filename", metadados.nomeArquivo() + ".pdf");
-        arquivo.put("filetype", ReportService.APPLICATION_PDF);
-        arquivo.set("content", new BinaryNode(pdfUtil.encerrarRelatorio()));
-        return arquivo;
+            addCorpo(pdfUtil, entities);
+            pdfUtil.fecharRelatorio();
+        });
     }
 
-    private void addCorpo(List<T> entities) {
+    private void addCorpo(LocalPdfUtil pdfUtil, Iterable<T> entities) {
         LocalPdfTable paramTable = LocalPdfTable.builder()
-                .colunas(colunas)
-                .cabecalhos(cabecalhos)
+                .colunas(definicao.larguras())
+                .cabecalhos(definicao.cabecalhos())
                 .bold(false)
                 .build();
 
-        pdfUtil.iniciarTabela(paramTable);
-        try {
-
-            entities.forEach(entity -> {
-                String[] rowData = entityToRowMapper.apply(entity);
-                for (String data : rowData) {
-                    pdfUtil.addCelula(data);
-                }
-            });
-        } catch (Exception ex) {
-            ex.printStackTrace();
+        pdfUtil.iniciarTabelaGrande(paramTable);
+        int linhas = 0;
+        // Falhas da busca das páginas (banco, timeout) propagam e o relatório falha; só a conversão de uma linha é
+        // tolerada, para não devolver como sucesso um PDF truncado.
+        for (T entity : entities) {
+            String[] rowData;
+            try {
+                rowData = definicao.paraLinha().apply(entity);
+            } catch (Exception ex) {
+                log.error("Erro ao incluir a linha {} no relatório; linha ignorada: {}", linhas + 1, ex.getMessage(), ex);
+                continue;
+            }
+            for (String data : rowData) {
+                pdfUtil.addCelula(data);
+            }
+            if (++linhas % LINHAS_POR_DESCARGA == 0) {
+                pdfUtil.descarregarTabela();
+            }
         }
-        pdfUtil.encerrarTabela();
+        pdfUtil.concluirTabela();
     }
 
     private LocalPdfParameters criarParameters(MetadadosRelatorioRequest metadados) {
@@ -74,14 +83,10 @@ public class GenericReportPdf<T> implements ReportGenerator<T> {
                 .metadataKeywords("Relatório")
                 .metadataCreator(metadados.nomeUsuario())
                 .retrato(false)
-                .immediateFlush(false)
+                .immediateFlush(true)
                 .tituloRelatorio(metadados.titulo())
                 .subtituloRelatorio(metadados.subtitulo())
-                .logoBase64(metadados.logoBase64())
+                .logo(metadados.logo())
                 .build();
     }
-
-    private void addRodape(String usuario) {
-        pdfUtil.addRodape(usuario);
-    }
-}
\ No newline at end of file
+}
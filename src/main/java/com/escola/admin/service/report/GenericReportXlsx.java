@@ -0,0 +1,27 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.request.report.MetadadosRelatorioRequest;
+import com.escola.admin.util.OfficeOpenXmlUtil;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Gerador de planilha XLSX em formato de listagem. As linhas são escritas na planilha à medida que os registros
+ * são lidos (ver {@link OfficeOpenXmlUtil}).
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+public class GenericReportXlsx<T> implements ReportGenerator<T> {
+
+    DefinicaoRelatorio<T> definicao;
+
+    @Override
+    public ObjectNode build(Iterable<T> entities, MetadadosRelatorioRequest metadados) throws BaseException {
+        return ArquivoRelatorio.gerar(metadados.nomeArquivo(), "xlsx", ReportService.APPLICATION_XLSX,
+                out -> OfficeOpenXmlUtil.gerarPlanilha(definicao.titulo(), definicao.listaCabecalhos(), entities,
+                        definicao.paraLinha(), out));
+    }
+}
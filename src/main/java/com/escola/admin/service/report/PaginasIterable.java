@@ -0,0 +1,71 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.model.projection.RegistroRelatorio;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.function.BiFunction;
+
+/**
+ * Percorre uma consulta paginada sob demanda: a próxima página só é buscada quando a anterior foi consumida,
+ * então apenas uma página fica em memória por vez.
+ * <p>
+ * A paginação é por chave: {@code buscarPagina} recebe o ID da última linha lida (0 na primeira página) e devolve as
+ * linhas seguintes em ordem de ID, até o tamanho da página. Cada página custa o mesmo (sem OFFSET, que relê as
+ * linhas anteriores, nem o COUNT de um {@code Page}) e linhas inseridas durante a leitura não deslocam as páginas.
+ * {@code aoTrocarPagina} é executado antes de cada nova busca (ex.: limpar o contexto de persistência).
+ * <p>
+ * Se a thread for interrompida (geração cancelada, ex.: timeout do job), a próxima página não é buscada e a leitura
+ * termina com {@link CancellationException}.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@RequiredArgsConstructor
+public class PaginasIterable<T extends RegistroRelatorio> implements Iterable<T> {
+
+    BiFunction<Long, Pageable, List<T>> buscarPagina;
+    int tamanhoPagina;
+    Runnable aoTrocarPagina;
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            List<T> pagina = Collections.emptyList();
+            Iterator<T> linhas = pagina.iterator();
+            Long ultimoId = 0L;
+            boolean haMaisPaginas = true;
+
+            @Override
+            public boolean hasNext() {
+                while (!linhas.hasNext() && haMaisPaginas) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Leitura do relatório interrompida.");
+                    }
+                    if (!pagina.isEmpty()) {
+                        ultimoId = pagina.get(pagina.size() - 1).id();
+                        aoTrocarPagina.run();
+                    }
+                    pagina = buscarPagina.apply(ultimoId, PageRequest.ofSize(tamanhoPagina));
+                    haMaisPaginas = pagina.size() == tamanhoPagina;
+                    linhas = pagina.iterator();
+                }
+                return linhas.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return linhas.next();
+            }
+        };
+    }
+}
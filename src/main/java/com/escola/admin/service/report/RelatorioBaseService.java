@@ -4,127 +4,181 @@ package com.escola.admin.service.report;
 import com.escola.admin.exception.BaseException;
 import com.escola.admin.model.entity.Empresa;
 import com.escola.admin.model.entity.Usuario;
+import com.escola.admin.model.projection.RegistroRelatorio;
 import com.escola.admin.model.request.report.FiltroRelatorioRequest;
 import com.escola.admin.model.request.report.MetadadosRelatorioRequest;
 import com.escola.admin.model.response.RelatorioBase64Response;
 import com.escola.admin.service.EmpresaService;
-import com.escola.admin.service.FileStorageService;
+import com.escola.admin.service.LogoCacheService;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.itextpdf.io.image.ImageData;
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiFunction;
 
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @Slf4j
 public class RelatorioBaseService {
 
+    /**
+     * Quantidade de registros lidos do banco por vez durante a geração de um relatório.
+     */
+    private static final int TAMANHO_PAGINA_RELATORIO = 500;
+
     EmpresaService empresaService;
-    FileStorageService storageService;
+    LogoCacheService logoCacheService;
     ReportService reportService;
+    EntityManager entityManager;
+    TransactionTemplate transacaoSomenteLeitura;
+    RenderizacaoService renderizacaoService;
 
-    public RelatorioBaseService(@Lazy EmpresaService empresaService, FileStorageService storageService, ReportService reportService) {
+    public RelatorioBaseService(@Lazy EmpresaService empresaService, LogoCacheService logoCacheService, ReportService reportService,
+                                EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                RenderizacaoService renderizacaoService) {
         this.empresaService = empresaService;
-        this.storageService = storageService;
+        this.logoCacheService = logoCacheService;
         this.reportService = reportService;
+        this.entityManager = entityManager;
+        this.transacaoSomenteLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoSomenteLeitura.setReadOnly(true);
+        this.renderizacaoService = renderizacaoService;
     }
 
-    public <T> Mono<RelatorioBase64Response> emitirRelatorioGenerico(
-            Mono<Page<T>> entitiesMono,
+    /**
+     * Emite um relatório percorrendo a consulta página a página.
+     *
+     * @param buscarPagina consulta paginada por chave das linhas do relatório (ver {@link PaginasIterable}), em geral
+     *                     uma projeção só com as colunas impressas
+     *                     (ex.: {@code (ultimoId, pagina) -> repository.findRelatorioByFiltro(..., ultimoId, pagina)}).
+     * @param entityClass  entidade do relatório; define o gerador usado ({@link ReportFactoryService}).
+     */
+    public <T extends RegistroRelatorio> Mono<RelatorioBase64Response> emitirRelatorioGenerico(
+            BiFunction<Long, Pageable, List<T>> buscarPagina,
             FiltroRelatorioRequest request,
             Usuario usuario,
             String subtitulo,
             String nomeArquivo,
-            Class<T> entityClass) {
-
-        return entitiesMono
-                .flatMap(entitiesPage -> {
-                    // 1. Cria um Mono para o ID da empresa, usando justOrEmpty para tratar o nulo
-                    return Mono.justOrEmpty(usuario.getEmpresaIdFromToken())
-                            .flatMap(empresaId -> empresaService.findById(empresaId)
-                                    .flatMap(empresa -> {
-                                        // 3. Se a empresa for encontrada, busca o logo e gera o relatório
-                                        return buscarLogoEGerarRelatorio(request, entitiesPage.getContent(), usuario, empresa.getNomeFantasia(), subtitulo, nomeArquivo, entityClass, empresa);
-                                    })
-                                    .switchIfEmpty(
-                                            // 4. Se a empresa não for encontrada, gera o relatório com dados genéricos
-                                            Mono.defer(() -> gerarRelatorioGenerico(request, entitiesPage.getContent(), usuario, subtitulo, nomeArquivo, entityClass))
-                                    )
-                            )
-                            .switchIfEmpty(
-                                    // 2. Se o ID for nulo, gera o relatório com dados genéricos
-                                    Mono.defer(() -> gerarRelatorioGenerico(request, entitiesPage.getContent(), usuario, subtitulo, nomeArquivo, entityClass))
-                            );
-                })
-                .switchIfEmpty(Mono.empty());
+            Class<?> entityClass) {
+
+        // 1. Cria um Mono para o ID da empresa, usando justOrEmpty para tratar o nulo
+        return Mono.justOrEmpty(usuario.getEmpresaIdFromToken())
+                .flatMap(empresaId -> empresaService.findById(empresaId)
+                        .flatMap(empresa -> {
+                            // 3. Se a empresa for encontrada, busca o logo e gera o relatório
+                            return buscarLogoEGerarRelatorio(request, buscarPagina, usuario, empresa.getNomeFantasia(), subtitulo, nomeArquivo, entityClass, empresa);
+                        })
+                        .switchIfEmpty(
+                                // 4. Se a empresa não for encontrada, gera o relatório com dados genéricos
+                                Mono.defer(() -> gerarRelatorioGenerico(request, buscarPagina, usuario, subtitulo, nomeArquivo, entityClass))
+                        )
+                )
+                .switchIfEmpty(
+                        // 2. Se o ID for nulo, gera o relatório com dados genéricos
+                        Mono.defer(() -> gerarRelatorioGenerico(request, buscarPagina, usuario, subtitulo, nomeArquivo, entityClass))
+                );
     }
 
     // Método para buscar o logo e gerar o relatório (refatorado para clareza)
-    private <T> Mono<RelatorioBase64Response> buscarLogoEGerarRelatorio(
+    private <T extends RegistroRelatorio> Mono<RelatorioBase64Response> buscarLogoEGerarRelatorio(
             FiltroRelatorioRequest request,
-            List<T> entities,
+            BiFunction<Long, Pageable, List<T>> buscarPagina,
             Usuario usuario,
             String empresaNome,
             String subtitulo,
             String nomeArquivo,
-            Class<T> entityClass,
+            Class<?> entityClass,
             Empresa empresa) {
 
-        Mono<String> logoMono = (empresa.getLogo() != null)
-                ? storageService.getFileAsBase64(empresa.getLogo().getUuid())
+        // Logo vem do cache, já decodificado; sem logo (ou com erro na busca) o relatório usa o logo padrão.
+        Mono<Optional<ImageData>> logoMono = logoCacheService.buscar(empresa.getLogo())
+                .map(logo -> Optional.ofNullable(logo.imagem()))
                 .doOnError(e -> log.error("Arquivo do logo não encontrado para a empresa com ID {}: {}", empresa.getId(), e.getMessage(), e))
-                .onErrorResume(e -> Mono.just(""))
-                : Mono.just("");
+                .onErrorResume(e -> Mono.empty())
+                .defaultIfEmpty(Optional.empty());
 
-        return logoMono.flatMap(logoBase64 ->
-                generateReport(request, entities, usuario, empresaNome, logoBase64, subtitulo, nomeArquivo, entityClass)
+        return logoMono.flatMap(logo ->
+                generateReport(request, buscarPagina, usuario, empresaNome, logo.orElse(null), subtitulo, nomeArquivo, entityClass)
         );
     }
 
     // Método para gerar o relatório com dados genéricos (sem logo e com nome padrão)
-    private <T> Mono<RelatorioBase64Response> gerarRelatorioGenerico(
+    private <T extends RegistroRelatorio> Mono<RelatorioBase64Response> gerarRelatorioGenerico(
             FiltroRelatorioRequest request,
-            List<T> entities,
+            BiFunction<Long, Pageable, List<T>> buscarPagina,
             Usuario usuario,
             String subtitulo,
             String nomeArquivo,
-            Class<T> entityClass) {
-        return generateReport(request, entities, usuario, "Sistema de Gestão", null, subtitulo, nomeArquivo, entityClass);
+            Class<?> entityClass) {
+        return generateReport(request, buscarPagina, usuario, "Sistema de Gestão", null, subtitulo, nomeArquivo, entityClass);
     }
 
     // Método privado para gerar o relatório
-    private <T> Mono<RelatorioBase64Response> generateReport(
+    private <T extends RegistroRelatorio> Mono<RelatorioBase64Response> generateReport(
             FiltroRelatorioRequest request,
-            List<T> entities,
+            BiFunction<Long, Pageable, List<T>> buscarPagina,
             Usuario usuario,
             String empresaNome,
-            String logoBase64,
+            ImageData logo,
             String subtitulo,
             String nomeArquivo,
-            Class<T> entityClass) {
+            Class<?> entityClass) {
 
-        return Mono.fromCallable(() -> {
+        // Leitura paginada no banco e montagem do arquivo são bloqueantes: rodam no pool de renderização,
+        // que também limita quantas conexões JDBC os relatórios ocupam ao mesmo tempo.
+        return renderizacaoService.executar("relatorio", () -> {
                     MetadadosRelatorioRequest metadados = MetadadosRelatorioRequest.builder()
                             .nomeUsuario("%s %s".formatted(usuario.getFirstname(), usuario.getLastname()))
                             .titulo("Sistema de Gestão: " + empresaNome)
                             .subtitulo(subtitulo)
-                            .logoBase64(logoBase64 != null && !logoBase64.isBlank() ? logoBase64 : null)
+                            .logo(logo)
                             .nomeArquivo(nomeArquivo)
                             .build();
 
-                    ObjectNode jsonNodes = reportService.generateReport(request.tipo(), entities, metadados, entityClass);
+                    ObjectNode jsonNodes = gerarEmTransacaoSomenteLeitura(request, buscarPagina, metadados, entityClass);
 
                     String nome = jsonNodes.get("filename").asText();
                     String conteudo = jsonNodes.get("content").asText();
                     return new RelatorioBase64Response(nome, conteudo);
 
-                }).onErrorResume(BaseException.class, Mono::error)
+                })
+                .onErrorResume(BaseException.class, Mono::error)
                 .onErrorResume(Exception.class, e -> Mono.error(new RuntimeException("Erro ao processar o relatório", e)));
     }
-}
\ No newline at end of file
+
+    /**
+     * Gera o arquivo dentro de uma única transação somente leitura, para que associações lazy usadas nas linhas
+     * possam ser carregadas. O contexto de persistência é limpo a cada página, mantendo o consumo de memória
+     * limitado ao tamanho da página, independentemente do total de registros.
+     */
+    private <T extends RegistroRelatorio> ObjectNode gerarEmTransacaoSomenteLeitura(
+            FiltroRelatorioRequest request,
+            BiFunction<Long, Pageable, List<T>> buscarPagina,
+            MetadadosRelatorioRequest metadados,
+            Class<?> entityClass) throws Exception {
+        try {
+            return transacaoSomenteLeitura.execute(status -> {
+                PaginasIterable<T> registros = new PaginasIterable<>(buscarPagina, TAMANHO_PAGINA_RELATORIO, entityManager::clear);
+                try {
+                    return reportService.generateReport(request.tipo(), registros, metadados, entityClass);
+                } catch (BaseException e) {
+                    throw new CompletionException(e);
+                }
+            });
+        } catch (CompletionException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+}
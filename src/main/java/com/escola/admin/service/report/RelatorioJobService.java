@@ -0,0 +1,250 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.exception.BaseException;
+import com.escola.admin.model.entity.RelatorioJob;
+import com.escola.admin.model.entity.Usuario;
+import com.escola.admin.model.entity.cliente.StatusContrato;
+import com.escola.admin.model.projection.RelatorioJobResumo;
+import com.escola.admin.model.request.report.FiltroRelatorioRequest;
+import com.escola.admin.model.response.RelatorioBase64Response;
+import com.escola.admin.model.response.RelatorioJobResponse;
+import com.escola.admin.repository.RelatorioJobRepository;
+import com.escola.admin.security.TokenRelay;
+import com.escola.admin.service.EmpresaService;
+import com.escola.admin.service.UsuarioService;
+import com.escola.admin.service.auxiliar.TurmaService;
+import com.escola.admin.service.cliente.ClienteService;
+import com.escola.admin.service.cliente.ContratoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Service;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão assíncrona de relatórios.
+ * <p>
+ * A solicitação apenas enfileira o job e devolve o seu ID; a geração (consulta paginada + montagem do arquivo)
+ * roda em um pool de workers de tamanho fixo, com fila limitada. O cliente acompanha o status e, quando concluído,
+ * baixa o arquivo pelo ID. Assim exportações grandes não seguram a requisição GraphQL nem estouram o timeout do cliente.
+ * <p>
+ * O job é gerado no nó que recebeu a solicitação, mas o status e o arquivo ficam no banco ({@link RelatorioJob}):
+ * atrás do Eureka, o acompanhamento e o download funcionam em qualquer instância, sem roteamento fixo. Os jobs expiram
+ * após o TTL configurado, contado a partir da última mudança de status, e os expirados são excluídos a cada nova
+ * solicitação. Um job que ficou em processamento além do timeout (nó encerrado no meio da geração) é apresentado como
+ * erro. Cada job pertence ao usuário e à empresa que o solicitaram.
+ * <p>
+ * Um job já aceito aguarda vaga no pool de renderização ({@link RenderizacaoService#aguardandoVaga()}) em vez de falhar
+ * com a fila de renderização cheia.
+ */
+@Service
+@Slf4j
+public class RelatorioJobService {
+
+    private static final Duration MARGEM_INTERRUPCAO = Duration.ofMinutes(1);
+
+    private final ContratoService contratoService;
+    private final ClienteService clienteService;
+    private final EmpresaService empresaService;
+    private final TurmaService turmaService;
+    private final UsuarioService usuarioService;
+    private final RelatorioJobRepository repository;
+
+    private final ThreadPoolExecutor executor;
+    private final Duration ttl;
+    private final Duration timeout;
+
+    public RelatorioJobService(
+            ContratoService contratoService,
+            ClienteService clienteService,
+            EmpresaService empresaService,
+            TurmaService turmaService,
+            UsuarioService usuarioService,
+            RelatorioJobRepository repository,
+            @Value("${application.report.jobs.workers:2}") int workers,
+            @Value("${application.report.jobs.queue-capacity:50}") int queueCapacity,
+            @Value("${application.report.jobs.ttl:PT30M}") Duration ttl,
+            @Value("${application.report.jobs.timeout:PT10M}") Duration timeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.contratoService = contratoService;
+        this.clienteService = clienteService;
+        this.empresaService = empresaService;
+        this.turmaService = turmaService;
+        this.usuarioService = usuarioService;
+        this.repository = repository;
+        this.ttl = ttl;
+        this.timeout = timeout;
+
+        // Fila limitada + AbortPolicy: acima da capacidade a solicitação é recusada em vez de acumular memória.
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("relatorio-job-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "relatorio.jobs");
+    }
+
+    /**
+     * Enfileira a geração do relatório e devolve o job no status {@code PENDENTE}. O token do solicitante é lido do
+     * contexto do Reactor na solicitação e repassado ao job, que roda fora da requisição (busca do logo no util-service).
+     *
+     * @param status filtro de status, usado apenas pelo relatório de contratos.
+     */
+    public Mono<RelatorioJobResponse> solicitar(TipoRelatorioEnum relatorio, FiltroRelatorioRequest request,
+                                                List<StatusContrato> status, Usuario usuario) {
+        return Mono.deferContextual(contexto -> Mono.fromCallable(() -> {
+            verificarPermissao(relatorio, usuario);
+            String token = TokenRelay.doContexto(contexto).orElse(null);
+
+            OffsetDateTime agora = OffsetDateTime.now();
+            repository.excluirExpirados(agora.minus(ttl));
+            RelatorioJob job = repository.save(RelatorioJob.builder()
+                    .id(UUID.randomUUID().toString())
+                    .relatorio(relatorio)
+                    .username(usuario.getUsername())
+                    .idEmpresa(usuario.getEmpresaIdFromToken())
+                    .status(StatusRelatorioJobEnum.PENDENTE)
+                    .dataSolicitacao(agora)
+                    .dataAtualizacao(agora)
+                    .build());
+            try {
+                executor.execute(() -> executar(job.getId(), relatorio, request, status, usuario, token));
+            } catch (RejectedExecutionException e) {
+                repository.deleteById(job.getId());
+                log.warn("Fila de relatórios cheia. Solicitação de {} recusada para o usuário '{}'.", relatorio, usuario.getUsername());
+                throw new BaseException("Muitos relatórios em processamento. Tente novamente em alguns instantes.");
+            }
+
+            log.info("Relatório {} enfileirado (job {}) para o usuário '{}'.", relatorio, job.getId(), usuario.getUsername());
+            return RelatorioJobResponse.builder()
+                    .id(job.getId())
+                    .relatorio(relatorio)
+                    .status(job.getStatus())
+                    .dataSolicitacao(job.getDataSolicitacao())
+                    .build();
+        }).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    public Mono<RelatorioJobResponse> buscarStatus(String id, Usuario usuario) {
+        return Mono.fromCallable(() -> toResponse(buscarJob(id, usuario)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Devolve o arquivo de um job concluído. O resultado continua disponível até o job expirar.
+     */
+    public Mono<RelatorioBase64Response> baixar(String id, Usuario usuario) {
+        return Mono.fromCallable(() -> {
+            RelatorioJobResumo job = buscarJob(id, usuario);
+            return switch (job.status()) {
+                case CONCLUIDO -> repository.findArquivoById(job.id())
+                        .orElseThrow(() -> new BaseException("Relatório não encontrado ou expirado."));
+                case ERRO -> throw new BaseException("Falha ao gerar o relatório: " + job.mensagemErro());
+                default -> throw new BaseException("O relatório ainda está em processamento.");
+            };
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private RelatorioJobResumo buscarJob(String id, Usuario usuario) throws BaseException {
+        OffsetDateTime expiracao = OffsetDateTime.now().minus(ttl);
+        // Jobs de outros usuários são tratados como inexistentes, para não revelar IDs válidos.
+        RelatorioJobResumo job = Optional.ofNullable(id)
+                .flatMap(repository::findResumoById)
+                .filter(resumo -> resumo.dataAtualizacao().isAfter(expiracao))
+                .filter(resumo -> resumo.pertenceA(usuario.getUsername(), usuario.getEmpresaIdFromToken()))
+                .orElseThrow(() -> new BaseException("Relatório não encontrado ou expirado."));
+        return interrompido(job) ? comErroDeInterrupcao(job) : job;
+    }
+
+    /**
+     * Em processamento há mais tempo que o timeout (com uma margem para a gravação do resultado): o nó que gerava
+     * o relatório foi encerrado antes de registrar o resultado.
+     */
+    private boolean interrompido(RelatorioJobResumo job) {
+        return job.status() == StatusRelatorioJobEnum.PROCESSANDO
+                && job.dataAtualizacao().isBefore(OffsetDateTime.now().minus(timeout).minus(MARGEM_INTERRUPCAO));
+    }
+
+    private static RelatorioJobResumo comErroDeInterrupcao(RelatorioJobResumo job) {
+        return new RelatorioJobResumo(job.id(), job.relatorio(), job.username(), job.idEmpresa(),
+                StatusRelatorioJobEnum.ERRO, job.dataSolicitacao(), job.dataAtualizacao(), job.dataAtualizacao(),
+                "A geração foi interrompida. Solicite o relatório novamente.");
+    }
+
+    private static RelatorioJobResponse toResponse(RelatorioJobResumo job) {
+        return RelatorioJobResponse.builder()
+                .id(job.id())
+                .relatorio(job.relatorio())
+                .status(job.status())
+                .dataSolicitacao(job.dataSolicitacao())
+                .dataConclusao(job.dataConclusao())
+                .mensagemErro(job.mensagemErro())
+                .build();
+    }
+
+    private void verificarPermissao(TipoRelatorioEnum relatorio, Usuario usuario) {
+        if (relatorio.getAutoridades().isEmpty()) {
+            return;
+        }
+        boolean autorizado = usuario.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(relatorio.getAutoridades()::contains);
+        if (!autorizado) {
+            throw new AccessDeniedException("Acesso negado ao relatório " + relatorio + ".");
+        }
+    }
+
+    private void executar(String id, TipoRelatorioEnum relatorio, FiltroRelatorioRequest request,
+                          List<StatusContrato> status, Usuario usuario, String token) {
+        try {
+            repository.atualizarStatus(id, StatusRelatorioJobEnum.PROCESSANDO, OffsetDateTime.now());
+            RelatorioBase64Response resultado = emitir(relatorio, request, status, usuario)
+                    .contextWrite(TokenRelay.comToken(token))
+                    .contextWrite(RenderizacaoService.aguardandoVaga())
+                    .block(timeout);
+            if (resultado == null) {
+                throw new BaseException("O relatório não retornou conteúdo.");
+            }
+            repository.concluir(id, resultado.nomeArquivo(), resultado.conteudoBase64(), OffsetDateTime.now());
+            log.info("Relatório {} concluído (job {}).", relatorio, id);
+        } catch (Exception e) {
+            Throwable causa = Exceptions.unwrap(e);
+            log.error("Erro ao gerar o relatório {} (job {}): {}", relatorio, id, causa.getMessage(), causa);
+            String mensagem = causa instanceof BaseException ? causa.getMessage() : "Erro ao processar o relatório.";
+            repository.registrarErro(id, mensagem, OffsetDateTime.now());
+        }
+    }
+
+    private Mono<RelatorioBase64Response> emitir(TipoRelatorioEnum relatorio, FiltroRelatorioRequest request,
+                                                 List<StatusContrato> status, Usuario usuario) {
+        return switch (relatorio) {
+            case CONTRATOS -> contratoService.emitirRelatorio(request, status, usuario);
+            case CLIENTES -> clienteService.emitirRelatorio(request, usuario);
+            case EMPRESAS -> empresaService.emitirRelatorio(request, usuario);
+            case TURMAS -> turmaService.emitirRelatorio(request, usuario);
+            case USUARIOS -> usuarioService.emitirRelatorio(request, usuario);
+        };
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,145 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.exception.BaseException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool dedicado à geração de documentos (HTML para PDF dos contratos e montagem dos relatórios).
+ * <p>
+ * A renderização é pesada em CPU e, no caso dos relatórios, segura uma conexão JDBC durante a leitura paginada.
+ * Com um número fixo de workers e fila limitada, um pico de downloads não ocupa as threads do Reactor nem
+ * esgota o pool de conexões: acima da capacidade a solicitação é recusada com {@link BaseException}.
+ * Quem já roda fora de uma requisição (jobs de relatório) pode, em vez disso, aguardar uma vaga na fila:
+ * basta incluir {@link #aguardandoVaga()} no contexto do Reactor.
+ * <p>
+ * Métricas: {@code renderizacao.*} do executor (inclui o tamanho da fila), {@code renderizacao.espera} (tempo na fila),
+ * {@code renderizacao.tempo} (duração, por operação e resultado) e {@code renderizacao.rejeitadas}.
+ */
+@Service
+@Slf4j
+public class RenderizacaoService {
+
+    private static final String CHAVE_AGUARDAR_VAGA = RenderizacaoService.class.getName() + ".aguardarVaga";
+
+    // Sem limite de tentativas: quem aguarda vaga limita a espera pelo próprio timeout.
+    private static final Retry ESPERA_VAGA = Retry.backoff(Long.MAX_VALUE, Duration.ofMillis(200))
+            .maxBackoff(Duration.ofSeconds(2))
+            .jitter(0.5)
+            .filter(FilaCheiaException.class::isInstance);
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    public RenderizacaoService(
+            @Value("${application.render.workers:2}") int workers,
+            @Value("${application.render.queue-capacity:20}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("renderizacao-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "renderizacao");
+    }
+
+    /**
+     * Contexto do Reactor em que {@link #executar} aguarda uma vaga na fila, com novas tentativas, em vez de
+     * recusar a tarefa quando a fila está cheia.
+     */
+    public static Context aguardandoVaga() {
+        return Context.of(CHAVE_AGUARDAR_VAGA, Boolean.TRUE);
+    }
+
+    /**
+     * Executa a tarefa no pool de renderização. O resultado (ou erro) é emitido na thread do pool.
+     * Se o assinante cancelar (ex.: timeout), a tarefa é descartada se ainda estiver na fila ou interrompida se já
+     * estiver em execução; a leitura paginada ({@link PaginasIterable}) para antes da próxima página.
+     *
+     * @param operacao nome usado nas tags das métricas (ex.: {@code contrato}, {@code relatorio}).
+     */
+    public <T> Mono<T> executar(String operacao, Callable<T> tarefa) {
+        return Mono.deferContextual(contexto -> {
+            boolean aguardar = contexto.getOrDefault(CHAVE_AGUARDAR_VAGA, Boolean.FALSE);
+            Mono<T> execucao = submeter(operacao, tarefa, aguardar);
+            return aguardar ? execucao.retryWhen(ESPERA_VAGA) : execucao;
+        });
+    }
+
+    private <T> Mono<T> submeter(String operacao, Callable<T> tarefa, boolean aguardar) {
+        return Mono.create(sink -> {
+            long enfileiradoEm = System.nanoTime();
+            Future<?> futuro;
+            try {
+                futuro = executor.submit(() -> {
+                    long inicio = System.nanoTime();
+                    Timer.builder("renderizacao.espera")
+                            .tag("operacao", operacao)
+                            .register(meterRegistry)
+                            .record(Duration.ofNanos(inicio - enfileiradoEm));
+                    T valor;
+                    try {
+                        valor = tarefa.call();
+                    } catch (Throwable e) {
+                        registrarTempo(operacao, "erro", inicio);
+                        sink.error(e);
+                        return;
+                    }
+                    registrarTempo(operacao, "sucesso", inicio);
+                    sink.success(valor);
+                });
+            } catch (RejectedExecutionException e) {
+                Counter.builder("renderizacao.rejeitadas")
+                        .tag("operacao", operacao)
+                        .register(meterRegistry)
+                        .increment();
+                if (aguardar) {
+                    log.debug("Fila de renderização cheia. Geração de '{}' aguardando vaga.", operacao);
+                } else {
+                    log.warn("Fila de renderização cheia ({} aguardando). Geração de '{}' recusada.", executor.getQueue().size(), operacao);
+                }
+                sink.error(new FilaCheiaException());
+                return;
+            }
+            sink.onCancel(() -> futuro.cancel(true));
+        });
+    }
+
+    private void registrarTempo(String operacao, String resultado, long inicio) {
+        Timer.builder("renderizacao.tempo")
+                .tag("operacao", operacao)
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - inicio));
+    }
+
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    private static final class FilaCheiaException extends BaseException {
+        FilaCheiaException() {
+            super("Muitos documentos em geração. Tente novamente em alguns instantes.");
+        }
+    }
+}
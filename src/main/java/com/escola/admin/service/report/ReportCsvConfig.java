@@ -0,0 +1,38 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.model.projection.EmpresaRelatorio;
+import com.escola.admin.model.projection.UsuarioRelatorio;
+import com.escola.admin.model.projection.auxiliar.TurmaRelatorio;
+import com.escola.admin.model.projection.cliente.ClienteRelatorio;
+import com.escola.admin.model.projection.cliente.ContratoRelatorio;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReportCsvConfig {
+
+    @Bean("reportEmpresaCSV")
+    public GenericReportCsv<EmpresaRelatorio> reportEmpresaCsv() {
+        return new GenericReportCsv<>(DefinicoesRelatorio.EMPRESA);
+    }
+
+    @Bean("reportClienteCSV")
+    public GenericReportCsv<ClienteRelatorio> reportClienteCsv() {
+        return new GenericReportCsv<>(DefinicoesRelatorio.CLIENTE);
+    }
+
+    @Bean("reportUsuarioCSV")
+    public GenericReportCsv<UsuarioRelatorio> reportUsuarioCsv() {
+        return new GenericReportCsv<>(DefinicoesRelatorio.USUARIO);
+    }
+
+    @Bean("reportTurmaCSV")
+    public GenericReportCsv<TurmaRelatorio> reportTurmaCsv() {
+        return new GenericReportCsv<>(DefinicoesRelatorio.TURMA);
+    }
+
+    @Bean("reportContratoCSV")
+    public GenericReportCsv<ContratoRelatorio> reportContratoCsv() {
+        return new GenericReportCsv<>(DefinicoesRelatorio.CONTRATO);
+    }
+}
@@ -13,7 +13,12 @@ public class ReportFactoryService<T> {
 
     ApplicationContext applicationContext;
 
-    public ReportGenerator<T> getReportGenerator(TipoArquivoEnum reportType, Class<T> entityClass) {
+    /**
+     * O gerador é o bean {@code report<Entidade><TIPO>} (ex.: {@code reportContratoPDF}). A entidade apenas
+     * identifica o relatório; as linhas recebidas pelo gerador são do tipo {@code T} (em geral uma projeção).
+     */
+    @SuppressWarnings("unchecked")
+    public ReportGenerator<T> getReportGenerator(TipoArquivoEnum reportType, Class<?> entityClass) {
         String beanName = "report" + entityClass.getSimpleName() + reportType;
         return (ReportGenerator<T>) applicationContext.getBean(beanName);
     }
@@ -5,8 +5,6 @@ import com.escola.admin.exception.BaseException;
 import com.escola.admin.model.request.report.MetadadosRelatorioRequest;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import java.util.List;
-
 public interface ReportGenerator<T> {
-    ObjectNode build(List<T> entities, MetadadosRelatorioRequest metadados) throws BaseException;
+    ObjectNode build(Iterable<T> entities, MetadadosRelatorioRequest metadados) throws BaseException;
 }
\ No newline at end of file
@@ -8,8 +8,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.experimental.FieldDefaults;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 @Service
 @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
 @RequiredArgsConstructor
@@ -17,10 +15,12 @@ public class ReportService<T> {
 
     public static final String APPLICATION_PDF = "application/pdf";
     public static final String APPLICATION_ODS = "application/vnd.oasis.opendocument.spreadsheet";
+    public static final String TEXT_CSV = "text/csv";
+    public static final String APPLICATION_XLSX = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
 
     ReportFactoryService<T> reportFactoryService;
 
-    public ObjectNode generateReport(TipoArquivoEnum reportType, List<T> entities, MetadadosRelatorioRequest metadados, Class<T> entityClass) throws BaseException {
+    public ObjectNode generateReport(TipoArquivoEnum reportType, Iterable<T> entities, MetadadosRelatorioRequest metadados, Class<?> entityClass) throws BaseException {
         // Get the appropriate report generator
         ReportGenerator<T> reportGenerator = reportFactoryService.getReportGenerator(reportType, entityClass);
 
@@ -0,0 +1,38 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.model.projection.EmpresaRelatorio;
+import com.escola.admin.model.projection.UsuarioRelatorio;
+import com.escola.admin.model.projection.auxiliar.TurmaRelatorio;
+import com.escola.admin.model.projection.cliente.ClienteRelatorio;
+import com.escola.admin.model.projection.cliente.ContratoRelatorio;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReportXlsxConfig {
+
+    @Bean("reportEmpresaXLSX")
+    public GenericReportXlsx<EmpresaRelatorio> reportEmpresaXlsx() {
+        return new GenericReportXlsx<>(DefinicoesRelatorio.EMPRESA);
+    }
+
+    @Bean("reportClienteXLSX")
+    public GenericReportXlsx<ClienteRelatorio> reportClienteXlsx() {
+        return new GenericReportXlsx<>(DefinicoesRelatorio.CLIENTE);
+    }
+
+    @Bean("reportUsuarioXLSX")
+    public GenericReportXlsx<UsuarioRelatorio> reportUsuarioXlsx() {
+        return new GenericReportXlsx<>(DefinicoesRelatorio.USUARIO);
+    }
+
+    @Bean("reportTurmaXLSX")
+    public GenericReportXlsx<TurmaRelatorio> reportTurmaXlsx() {
+        return new GenericReportXlsx<>(DefinicoesRelatorio.TURMA);
+    }
+
+    @Bean("reportContratoXLSX")
+    public GenericReportXlsx<ContratoRelatorio> reportContratoXlsx() {
+        return new GenericReportXlsx<>(DefinicoesRelatorio.CONTRATO);
+    }
+}
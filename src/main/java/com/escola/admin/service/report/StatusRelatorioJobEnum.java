@@ -0,0 +1,8 @@
+package com.escola.admin.service.report;
+
+public enum StatusRelatorioJobEnum {
+    PENDENTE, // Na fila, aguardando um worker
+    PROCESSANDO,
+    CONCLUIDO,
+    ERRO
+}
@@ -10,6 +10,8 @@ public enum TipoArquivoEnum {
 
     PDF(1, "pdf"), //
     ODS(2, "ods"), //
+    CSV(3, "csv"), //
+    XLSX(4, "xlsx"), //
     ;
 
     private final String descricao;
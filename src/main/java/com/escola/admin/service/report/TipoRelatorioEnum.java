@@ -0,0 +1,28 @@
+package com.escola.admin.service.report;
+
+import java.util.Set;
+
+/**
+ * Relatórios que podem ser solicitados de forma assíncrona (ver {@link RelatorioJobService}).
+ * As autoridades exigidas são as mesmas das queries {@code downloadLista*} correspondentes;
+ * conjunto vazio significa qualquer usuário autenticado.
+ */
+public enum TipoRelatorioEnum {
+
+    CONTRATOS(Set.of()), //
+    CLIENTES(Set.of("SUPER_ADMIN", "ADMIN_EMPRESA")), //
+    EMPRESAS(Set.of("SUPER_ADMIN", "ADMIN_EMPRESA")), //
+    TURMAS(Set.of("SUPER_ADMIN", "ADMIN_EMPRESA")), //
+    USUARIOS(Set.of()), //
+    ;
+
+    private final Set<String> autoridades;
+
+    TipoRelatorioEnum(Set<String> autoridades) {
+        this.autoridades = autoridades;
+    }
+
+    public Set<String> getAutoridades() {
+        return autoridades;
+    }
+}
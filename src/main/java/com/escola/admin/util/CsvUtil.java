@@ -0,0 +1,91 @@
+package com.escola.admin.util;
+
+import com.escola.admin.exception.BaseException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Geração de arquivos CSV por streaming, no formato esperado pelas planilhas em português:
+ * UTF-8 com BOM (para o Excel reconhecer a acentuação), separador {@code ;} (a vírgula é o separador decimal)
+ * e quebra de linha CRLF (RFC 4180).
+ */
+public interface CsvUtil {
+
+    char SEPARADOR = ';';
+    String QUEBRA_LINHA = "\r\n";
+    Pattern NUMERO = Pattern.compile("-?[0-9][0-9.,]*");
+
+    /**
+     * Grava o CSV em {@code destino}. O stream não é fechado.
+     *
+     * @param cabecalhos títulos das colunas (primeira linha).
+     * @param registros  registros, consumidos uma única vez e em ordem.
+     * @param paraLinha  converte um registro nos valores das colunas, na ordem dos cabeçalhos.
+     */
+    static <T> void gerarCsv(List<String> cabecalhos, Iterable<T> registros,
+                             Function<T, String[]> paraLinha, OutputStream destino) throws BaseException {
+        try {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+            writer.write('\uFEFF'); // BOM
+            escreverLinha(writer, cabecalhos.toArray(String[]::new));
+            for (T registro : registros) {
+                escreverLinha(writer, paraLinha.apply(registro));
+            }
+            writer.flush();
+        } catch (IOException ex) {
+            throw new BaseException("Falha ao gerar o CSV: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void escreverLinha(Writer writer, String[] valores) throws IOException {
+        for (int i = 0; i < valores.length; i++) {
+            if (i > 0) {
+                writer.write(SEPARADOR);
+            }
+            escreverCampo(writer, valores[i]);
+        }
+        writer.write(QUEBRA_LINHA);
+    }
+
+    /**
+     * Campos com separador, aspas ou quebra de linha vão entre aspas, com as aspas internas duplicadas.
+     * Texto que o Excel/LibreOffice interpretaria como fórmula (iniciado por {@code = + - @}, tab ou CR) recebe
+     * o prefixo {@code '} (injeção de fórmulas em CSV); números negativos são mantidos como estão.
+     */
+    private static void escreverCampo(Writer writer, String valor) throws IOException {
+        if (valor == null || valor.isEmpty()) {
+            return;
+        }
+        if (pareceFormula(valor)) {
+            valor = "'" + valor;
+        }
+        boolean precisaAspas = false;
+        for (int i = 0; i < valor.length() && !precisaAspas; i++) {
+            char c = valor.charAt(i);
+            precisaAspas = c == SEPARADOR || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!precisaAspas) {
+            writer.write(valor);
+            return;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean pareceFormula(String valor) {
+        return switch (valor.charAt(0)) {
+            case '=', '+', '@', '\t', '\r' -> true;
+            case '-' -> !NUMERO.matcher(valor).matches();
+            default -> false;
+        };
+    }
+}
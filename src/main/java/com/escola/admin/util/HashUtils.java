@@ -2,7 +2,9 @@ package com.escola.admin.util;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.HexFormat;
 
 public class HashUtils {
 
@@ -41,6 +43,21 @@ public class HashUtils {
         }
     }
 
+    /**
+     * Calcula o hash SHA-256 de um texto qualquer (codificado em UTF-8).
+     *
+     * @param texto O texto de entrada.
+     * @return O hash em formato hexadecimal.
+     */
+    public static String sha256Hex(String texto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Algoritmo SHA-256 indisponível.", e);
+        }
+    }
+
     /**
      * Converte um array de bytes em uma string hexadecimal.
      *
@@ -0,0 +1,179 @@
+package com.escola.admin.util;
+
+import com.escola.admin.exception.BaseException;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Geração de planilhas Office Open XML (.xlsx) por streaming, no mesmo modelo de {@link OpenDocumentUtil}.
+ * <p>
+ * O pacote contém apenas as partes obrigatórias (tipos de conteúdo, relacionamentos, {@code workbook.xml} e uma
+ * planilha). As células são texto inline ({@code t="inlineStr"}), sem tabela de strings compartilhadas:
+ * cada linha é gravada assim que o registro é lido, com memória constante.
+ */
+public interface OfficeOpenXmlUtil {
+
+    String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    String NS_XML = "http://www.w3.org/XML/1998/namespace";
+
+    /**
+     * Limite de caracteres de uma célula no Excel.
+     */
+    int TAMANHO_MAXIMO_CELULA = 32767;
+
+    String CONTENT_TYPES = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">\
+            <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>\
+            <Default Extension="xml" ContentType="application/xml"/>\
+            <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>\
+            <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>\
+            </Types>""";
+
+    String RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>\
+            </Relationships>""";
+
+    String WORKBOOK_RELS = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">\
+            <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>\
+            </Relationships>""";
+
+    /**
+     * Grava a planilha em {@code destino}. O stream não é fechado.
+     *
+     * @param titulo     nome da aba.
+     * @param cabecalhos títulos das colunas (primeira linha, congelada).
+     * @param registros  registros, consumidos uma única vez e em ordem.
+     * @param paraLinha  converte um registro nos valores das células, na ordem dos cabeçalhos.
+     */
+    static <T> void gerarPlanilha(String titulo, List<String> cabecalhos, Iterable<T> registros,
+                                  Function<T, String[]> paraLinha, OutputStream destino) throws BaseException {
+        try {
+            ZipOutputStream zip = new ZipOutputStream(destino, StandardCharsets.UTF_8);
+            escreverTexto(zip, "[Content_Types].xml", CONTENT_TYPES);
+            escreverTexto(zip, "_rels/.rels", RELS);
+            escreverTexto(zip, "xl/_rels/workbook.xml.rels", WORKBOOK_RELS);
+            escreverWorkbook(zip, titulo);
+
+            zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(zip, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("worksheet");
+            xml.writeDefaultNamespace(NS_MAIN);
+
+            // Primeira linha (cabeçalhos) congelada.
+            xml.writeStartElement("sheetViews");
+            xml.writeStartElement("sheetView");
+            xml.writeAttribute("workbookViewId", "0");
+            xml.writeEmptyElement("pane");
+            xml.writeAttribute("ySplit", "1");
+            xml.writeAttribute("topLeftCell", "A2");
+            xml.writeAttribute("activePane", "bottomLeft");
+            xml.writeAttribute("state", "frozen");
+            xml.writeEndElement();
+            xml.writeEndElement();
+
+            xml.writeStartElement("sheetData");
+            int linha = 1;
+            escreverLinha(xml, linha, cabecalhos.toArray(String[]::new));
+            for (T registro : registros) {
+                escreverLinha(xml, ++linha, paraLinha.apply(registro));
+            }
+            xml.writeEndElement(); // sheetData
+
+            xml.writeEndElement(); // worksheet
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
+
+            zip.closeEntry();
+            zip.finish();
+        } catch (IOException | XMLStreamException ex) {
+            throw new BaseException("Falha ao gerar a planilha: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static void escreverLinha(XMLStreamWriter xml, int linha, String[] valores) throws XMLStreamException {
+        xml.writeStartElement("row");
+        xml.writeAttribute("r", String.valueOf(linha));
+        for (int coluna = 0; coluna < valores.length; coluna++) {
+            String valor = valores[coluna];
+            if (valor == null || valor.isEmpty()) {
+                continue;
+            }
+            if (valor.length() > TAMANHO_MAXIMO_CELULA) {
+                valor = valor.substring(0, TAMANHO_MAXIMO_CELULA);
+            }
+            xml.writeStartElement("c");
+            xml.writeAttribute("r", referenciaColuna(coluna) + linha);
+            xml.writeAttribute("t", "inlineStr");
+            xml.writeStartElement("is");
+            xml.writeStartElement("t");
+            xml.writeAttribute("xml", NS_XML, "space", "preserve");
+            xml.writeCharacters(OpenDocumentUtil.removerCaracteresInvalidos(valor));
+            xml.writeEndElement();
+            xml.writeEndElement();
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private static void escreverWorkbook(ZipOutputStream zip, String titulo) throws IOException, XMLStreamException {
+        zip.putNextEntry(new ZipEntry("xl/workbook.xml"));
+        XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(zip, StandardCharsets.UTF_8.name());
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeStartElement("workbook");
+        xml.writeDefaultNamespace(NS_MAIN);
+        xml.writeNamespace("r", NS_RELATIONSHIPS);
+        xml.writeStartElement("sheets");
+        xml.writeEmptyElement("sheet");
+        xml.writeAttribute("name", nomeAba(titulo));
+        xml.writeAttribute("sheetId", "1");
+        xml.writeAttribute("r", NS_RELATIONSHIPS, "id", "rId1");
+        xml.writeEndElement();
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+        zip.closeEntry();
+    }
+
+    private static void escreverTexto(ZipOutputStream zip, String nome, String conteudo) throws IOException {
+        zip.putNextEntry(new ZipEntry(nome));
+        zip.write(conteudo.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    /**
+     * Letra(s) da coluna a partir do índice (0 = A, 25 = Z, 26 = AA...).
+     */
+    private static String referenciaColuna(int indice) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = indice + 1; i > 0; i = (i - 1) / 26) {
+            sb.insert(0, (char) ('A' + (i - 1) % 26));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * O Excel limita o nome da aba a 31 caracteres e não aceita {@code []:*?/\}.
+     */
+    private static String nomeAba(String titulo) {
+        String nome = titulo == null || titulo.isBlank() ? "Planilha" : titulo.replaceAll("[\\[\\]:*?/\\\\]", " ").trim();
+        return nome.length() > 31 ? nome.substring(0, 31) : nome;
+    }
+}
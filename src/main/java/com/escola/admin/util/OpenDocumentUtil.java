@@ -1,50 +1,167 @@
 package com.escola.admin.util;
 
 import com.escola.admin.exception.BaseException;
-import com.fasterxml.jackson.databind.JsonNode;
-import org.odftoolkit.odfdom.doc.OdfSpreadsheetDocument;
-import org.odftoolkit.odfdom.doc.table.OdfTable;
-import org.odftoolkit.odfdom.doc.table.OdfTableCell;
-import org.odftoolkit.odfdom.doc.table.OdfTableRow;
-
-import java.io.ByteArrayOutputStream;
-import java.util.Iterator;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
+/**
+ * Geração de planilhas OpenDocument (.ods) por streaming.
+ * <p>
+ * O pacote é escrito diretamente no {@link OutputStream}: {@code mimetype} (sem compressão, primeira entrada,
+ * como exige a especificação), {@code META-INF/manifest.xml} e {@code content.xml}, este último gerado linha a
+ * linha com {@link XMLStreamWriter}. Não há DOM nem representação intermediária das linhas: memória constante
+ * e tempo linear no número de células.
+ */
 public interface OpenDocumentUtil {
-    static byte[] gerarPlanilha(String titulo, List<String> cabecalhos, List<String> colunas, List<JsonNode> dados) throws BaseException {
-        try (OdfSpreadsheetDocument doc = OdfSpreadsheetDocument.newSpreadsheetDocument()) {
 
-            OdfTable table = doc.getTableList().get(0);
-            table.setTableName(titulo);
-            table.removeRowsByIndex(0, table.getRowCount());
-            OdfTableRow r = table.getRowByIndex(0);
+    String MIMETYPE_ODS = "application/vnd.oasis.opendocument.spreadsheet";
+
+    String NS_OFFICE = "urn:oasis:names:tc:opendocument:xmlns:office:1.0";
+    String NS_TABLE = "urn:oasis:names:tc:opendocument:xmlns:table:1.0";
+    String NS_TEXT = "urn:oasis:names:tc:opendocument:xmlns:text:1.0";
+    String NS_MANIFEST = "urn:oasis:names:tc:opendocument:xmlns:manifest:1.0";
+
+    /**
+     * Grava a planilha em {@code destino}. O stream não é fechado.
+     *
+     * @param titulo     nome da aba.
+     * @param cabecalhos títulos das colunas (primeira linha).
+     * @param registros  registros, consumidos uma única vez e em ordem.
+     * @param paraLinha  converte um registro nos valores das células, na ordem dos cabeçalhos.
+     */
+    static <T> void gerarPlanilha(String titulo, List<String> cabecalhos, Iterable<T> registros,
+                                  Function<T, String[]> paraLinha, OutputStream destino) throws BaseException {
+        try {
+            ZipOutputStream zip = new ZipOutputStream(destino, StandardCharsets.UTF_8);
+            escreverMimetype(zip);
+            escreverManifest(zip);
+
+            zip.putNextEntry(new ZipEntry("content.xml"));
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(zip, StandardCharsets.UTF_8.name());
+            xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+            xml.writeStartElement("office", "document-content", NS_OFFICE);
+            xml.writeNamespace("office", NS_OFFICE);
+            xml.writeNamespace("table", NS_TABLE);
+            xml.writeNamespace("text", NS_TEXT);
+            xml.writeAttribute("office", NS_OFFICE, "version", "1.2");
+            xml.writeStartElement("office", "body", NS_OFFICE);
+            xml.writeStartElement("office", "spreadsheet", NS_OFFICE);
+
+            xml.writeStartElement("table", "table", NS_TABLE);
+            xml.writeAttribute("table", NS_TABLE, "name", titulo != null ? titulo : "Planilha");
+            xml.writeEmptyElement("table", "table-column", NS_TABLE);
+            xml.writeAttribute("table", NS_TABLE, "number-columns-repeated", String.valueOf(Math.max(cabecalhos.size(), 1)));
+
+            xml.writeStartElement("table", "table-header-rows", NS_TABLE);
+            escreverLinha(xml, cabecalhos.toArray(String[]::new));
+            xml.writeEndElement();
 
-            for (int numCol = 0; numCol < colunas.size(); ++numCol) {
-                OdfTableCell c = r.getCellByIndex(numCol);
-                c.setStringValue(cabecalhos.get(numCol) != null ? cabecalhos.get(numCol) : "");
+            for (T registro : registros) {
+                escreverLinha(xml, paraLinha.apply(registro));
             }
 
-            Iterator<JsonNode> var12 = dados.iterator();
+            xml.writeEndElement(); // table:table
+            xml.writeEndElement(); // office:spreadsheet
+            xml.writeEndElement(); // office:body
+            xml.writeEndElement(); // office:document-content
+            xml.writeEndDocument();
+            xml.flush();
+            xml.close();
 
-            while (var12.hasNext()) {
-                JsonNode item = var12.next();
-                r = table.appendRow();
+            zip.closeEntry();
+            zip.finish();
+        } catch (IOException | XMLStreamException ex) {
+            throw new BaseException("Falha ao gerar a planilha: " + ex.getMessage(), ex);
+        }
+    }
 
-                for (int numCol = 0; numCol < colunas.size(); ++numCol) {
-                    String valor = item.get(colunas.get(numCol)) != null ? item.get(colunas.get(numCol)).asText() : "";
-                    OdfTableCell c = r.getCellByIndex(numCol);
-                    c.setStringValue(valor);
-                }
+    private static void escreverLinha(XMLStreamWriter xml, String[] valores) throws XMLStreamException {
+        xml.writeStartElement("table", "table-row", NS_TABLE);
+        for (String valor : valores) {
+            if (valor == null || valor.isEmpty()) {
+                xml.writeEmptyElement("table", "table-cell", NS_TABLE);
+                continue;
             }
+            xml.writeStartElement("table", "table-cell", NS_TABLE);
+            xml.writeAttribute("office", NS_OFFICE, "value-type", "string");
+            // Cada linha do texto vira um parágrafo da célula.
+            for (String paragrafo : valor.split("\\R", -1)) {
+                xml.writeStartElement("text", "p", NS_TEXT);
+                xml.writeCharacters(removerCaracteresInvalidos(paragrafo));
+                xml.writeEndElement();
+            }
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private static void escreverMimetype(ZipOutputStream zip) throws IOException {
+        byte[] conteudo = MIMETYPE_ODS.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+
+        ZipEntry entrada = new ZipEntry("mimetype");
+        entrada.setMethod(ZipEntry.STORED);
+        entrada.setSize(conteudo.length);
+        entrada.setCompressedSize(conteudo.length);
+        entrada.setCrc(crc.getValue());
+        zip.putNextEntry(entrada);
+        zip.write(conteudo);
+        zip.closeEntry();
+    }
+
+    private static void escreverManifest(ZipOutputStream zip) throws IOException, XMLStreamException {
+        zip.putNextEntry(new ZipEntry("META-INF/manifest.xml"));
+        XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(zip, StandardCharsets.UTF_8.name());
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeStartElement("manifest", "manifest", NS_MANIFEST);
+        xml.writeNamespace("manifest", NS_MANIFEST);
+        xml.writeAttribute("manifest", NS_MANIFEST, "version", "1.2");
+
+        xml.writeEmptyElement("manifest", "file-entry", NS_MANIFEST);
+        xml.writeAttribute("manifest", NS_MANIFEST, "full-path", "/");
+        xml.writeAttribute("manifest", NS_MANIFEST, "version", "1.2");
+        xml.writeAttribute("manifest", NS_MANIFEST, "media-type", MIMETYPE_ODS);
 
-            ByteArrayOutputStream byteOS = new ByteArrayOutputStream();
-            doc.save(byteOS);
-            byte[] bytes = byteOS.toByteArray();
-            byteOS.close();
-            return bytes;
-        } catch (Exception ex) {
-            throw new BaseException((ex.getMessage()));
+        xml.writeEmptyElement("manifest", "file-entry", NS_MANIFEST);
+        xml.writeAttribute("manifest", NS_MANIFEST, "full-path", "content.xml");
+        xml.writeAttribute("manifest", NS_MANIFEST, "media-type", "text/xml");
+
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        xml.close();
+        zip.closeEntry();
+    }
+
+    /**
+     * Caracteres de controle não são permitidos em XML 1.0 (exceto tab, CR e LF).
+     * Também usado por {@link OfficeOpenXmlUtil}.
+     */
+    static String removerCaracteresInvalidos(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                StringBuilder sb = new StringBuilder(texto.length());
+                for (int j = 0; j < texto.length(); j++) {
+                    char d = texto.charAt(j);
+                    if (d >= 0x20 || d == '\t' || d == '\n' || d == '\r') {
+                        sb.append(d);
+                    }
+                }
+                return sb.toString();
+            }
         }
+        return texto;
     }
 }
@@ -0,0 +1,49 @@
+package com.escola.admin.util;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas simultâneas com a mesma chave em uma única execução ("single flight"): enquanto a primeira
+ * está em andamento, as demais assinam o mesmo {@link Mono} e recebem o mesmo resultado (ou erro).
+ * Ao terminar, a chave é liberada e a próxima chamada executa de novo; não há cache de resultado.
+ * <p>
+ * A execução compartilhada roda no contexto (ex.: token) de quem chegou primeiro, portanto só deve ser usada
+ * para leituras cujo resultado não depende de quem pede, com a autorização já verificada antes.
+ * O cancelamento de um assinante não cancela a execução dos demais.
+ *
+ * @param <K> chave da chamada; precisa de {@code equals}/{@code hashCode} consistentes.
+ * @param <V> tipo do resultado.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> emAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * Retorna a execução em andamento para a chave ou inicia uma nova com {@code chamada}.
+     */
+    public Mono<V> executar(K chave, Supplier<Mono<V>> chamada) {
+        return Mono.defer(() -> emAndamento.computeIfAbsent(chave, k -> compartilhar(k, chamada)));
+    }
+
+    /**
+     * Quantidade de chaves com execução em andamento.
+     */
+    public int emAndamento() {
+        return emAndamento.size();
+    }
+
+    private Mono<V> compartilhar(K chave, Supplier<Mono<V>> chamada) {
+        AtomicReference<Mono<V>> referencia = new AtomicReference<>();
+        Mono<V> compartilhado = Mono.defer(chamada)
+                // remove(chave, valor): não remove uma execução mais nova da mesma chave.
+                .doFinally(sinal -> emAndamento.remove(chave, referencia.get()))
+                .cache();
+        referencia.set(compartilhado);
+        return compartilhado;
+    }
+}
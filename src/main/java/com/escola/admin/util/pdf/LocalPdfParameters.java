@@ -5,6 +5,7 @@ package com.escola.admin.util.pdf;
 // (powered by FernFlower decompiler)
 //
 
+import com.itextpdf.io.image.ImageData;
 import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
@@ -27,5 +28,7 @@ public class LocalPdfParameters {
     String subtituloRelatorio;
     boolean retrato;
     String logoBase64;
+    ImageData logo; // Tem precedência sobre logoBase64 e evita decodificar a imagem a cada relatório
+
 
 }
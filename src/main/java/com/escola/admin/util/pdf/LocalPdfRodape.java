@@ -0,0 +1,85 @@
+package com.escola.admin.util.pdf;
+
+import com.escola.admin.util.DataUtils;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.events.Event;
+import com.itextpdf.kernel.events.IEventHandler;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Canvas;
+import com.itextpdf.layout.properties.TextAlignment;
+import org.apache.commons.text.WordUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+
+/**
+ * Rodapé "Página X de Y - Usuário: nome" e data de emissão, desenhado no fim de cada página (evento END_PAGE).
+ * <p>
+ * O total de páginas só é conhecido no fechamento do documento: todas as páginas referenciam o mesmo
+ * {@link PdfFormXObject}, preenchido por {@link #escreverTotalPaginas(PdfDocument)}. Assim as páginas prontas
+ * podem ser descarregadas durante a geração, em vez de ficarem em memória até o fim para receber o rodapé.
+ */
+class LocalPdfRodape implements IEventHandler {
+
+    private static final float TAMANHO_FONTE = 8.0F;
+    private static final float MARGEM = 10.0F;
+    private static final float LARGURA_TOTAL_PAGINAS = 25.0F;
+
+    private final String usuario;
+    private final String dataEmissao;
+    private final PdfFont fonte;
+    private final PdfFormXObject totalPaginas;
+
+    LocalPdfRodape(String nomeUsuario) {
+        this.usuario = nomeUsuario != null && !nomeUsuario.isEmpty() ? WordUtils.capitalizeFully(nomeUsuario) : null;
+        this.dataEmissao = DataUtils.formatar(new Date(), "dd/MM/yyyy HH:mm:ss");
+        try {
+            this.fonte = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível carregar a fonte do rodapé.", e);
+        }
+        this.totalPaginas = new PdfFormXObject(new Rectangle(0, 0, LARGURA_TOTAL_PAGINAS, 20.0F));
+    }
+
+    @Override
+    public void handleEvent(Event event) {
+        PdfDocumentEvent evento = (PdfDocumentEvent) event;
+        PdfDocument pdfDoc = evento.getDocument();
+        PdfPage pagina = evento.getPage();
+        Rectangle area = pagina.getPageSize();
+
+        String prefixo = "Página %d de ".formatted(pdfDoc.getPageNumber(pagina));
+        float larguraPrefixo = fonte.getWidth(prefixo, TAMANHO_FONTE);
+
+        PdfCanvas pdfCanvas = new PdfCanvas(pagina.newContentStreamAfter(), pagina.getResources(), pdfDoc);
+        Canvas canvas = new Canvas(pdfCanvas, area);
+        canvas.setFont(fonte).setFontSize(TAMANHO_FONTE);
+        canvas.showTextAligned(prefixo, MARGEM, MARGEM, TextAlignment.LEFT);
+        if (usuario != null) {
+            canvas.showTextAligned("- Usuário: " + usuario, MARGEM + larguraPrefixo + LARGURA_TOTAL_PAGINAS, MARGEM, TextAlignment.LEFT);
+        }
+        canvas.showTextAligned(dataEmissao, area.getWidth() - MARGEM, MARGEM, TextAlignment.RIGHT);
+        canvas.close();
+
+        pdfCanvas.addXObjectAt(totalPaginas, MARGEM + larguraPrefixo, MARGEM);
+        pdfCanvas.release();
+    }
+
+    /**
+     * Escreve o total de páginas no espaço reservado; deve ser chamado antes de fechar o documento.
+     */
+    void escreverTotalPaginas(PdfDocument pdfDoc) {
+        Canvas canvas = new Canvas(totalPaginas, pdfDoc);
+        canvas.setFont(fonte).setFontSize(TAMANHO_FONTE);
+        canvas.showTextAligned(String.valueOf(pdfDoc.getNumberOfPages()), 0, 0, TextAlignment.LEFT);
+        canvas.close();
+    }
+}
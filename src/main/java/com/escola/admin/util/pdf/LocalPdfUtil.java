@@ -8,7 +8,9 @@ package com.escola.admin.util.pdf;
 
 import com.escola.admin.util.DataUtils;
 import com.escola.admin.util.UtilBase64;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.events.PdfDocumentEvent;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.*;
@@ -24,15 +26,25 @@ import com.itextpdf.layout.properties.VerticalAlignment;
 import org.apache.commons.text.WordUtils;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
-import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Date;
 
-@Service
+/**
+ * Construtor de um documento PDF. Guarda o estado do documento em montagem (stream, documento, tabela atual),
+ * portanto não é thread-safe: cada relatório deve usar a sua própria instância ({@code new LocalPdfUtil()}).
+ */
 public class LocalPdfUtil {
-    private ByteArrayOutputStream out;
+    /**
+     * Logo padrão já decodificado; a mesma {@link ImageData} é reaproveitada por todos os documentos.
+     */
+    private static final ImageData LOGO_PADRAO = ImageDataFactory.create(UtilBase64.getLogoBase64());
+
+    private OutputStream out;
+    private ByteArrayOutputStream outMemoria;
+    private LocalPdfRodape rodape;
     private PdfDocument pdfDoc;
     private Document doc;
     private Table table;
@@ -57,9 +69,9 @@ public class LocalPdfUtil {
 //        this.iniciarRelatorio(titulo, null, false, true);
 //    }
 
-    private void iniciarRelatorioLocal(LocalPdfParameters parametros) {
+    private void iniciarRelatorioLocal(LocalPdfParameters parametros, OutputStream destino) {
 //        parametros.getTituloRelatorio(), parametros.getSubtituloRelatorio(), parametros.isRetrato(), parametros.isImmediateFlush()
-        this.out = new ByteArrayOutputStream();
+        this.out = destino;
         this.pdfDoc = new PdfDocument(new PdfWriter(this.out));
         this.pdfDoc.setDefaultPageSize(parametros.isRetrato() ? PageSize.A4 : PageSize.A4.rotate());
         this.doc = new Document(this.pdfDoc, parametros.isRetrato() ? PageSize.A4 : PageSize.A4.rotate(), parametros.isImmediateFlush());
@@ -68,13 +80,25 @@ public class LocalPdfUtil {
         this.metadata = this.pdfDoc.getDocumentInfo();
         this.pdfDoc.getCatalog().put(PdfName.Lang, new PdfString("BR"));
         if (parametros.getTituloRelatorio() != null) {
-            this.addCabecalho(parametros.getTituloRelatorio(), parametros.getSubtituloRelatorio(), parametros.getLogoBase64());
+            this.addCabecalho(parametros.getTituloRelatorio(), parametros.getSubtituloRelatorio(), logoDoCabecalho(parametros));
         }
 
     }
 
+    /**
+     * Inicia o relatório em memória; o conteúdo é devolvido por {@link #encerrarRelatorio()}.
+     */
     public void iniciarRelatorio(LocalPdfParameters parametros) {
-        this.iniciarRelatorioLocal(parametros);
+        this.outMemoria = new ByteArrayOutputStream();
+        this.iniciarRelatorio(parametros, this.outMemoria);
+    }
+
+    /**
+     * Inicia o relatório gravando diretamente em {@code destino} (ex.: arquivo temporário).
+     * Encerrar com {@link #fecharRelatorio()}; o stream é fechado junto com o documento.
+     */
+    public void iniciarRelatorio(LocalPdfParameters parametros, OutputStream destino) {
+        this.iniciarRelatorioLocal(parametros, destino);
         if (parametros.getMetadataTitle() != null) {
             this.metadata.setTitle(parametros.getMetadataTitle());
         }
@@ -97,14 +121,19 @@ public class LocalPdfUtil {
 
     }
 
-    private void addCabecalho(String titulo, String subtitulo, String logoBase64) {
-        // Load the logo
-        Image logo;
-        if (logoBase64 != null) {
-            logo = new Image(ImageDataFactory.create(UtilBase64.getImagem(logoBase64)));
-        } else {
-            logo = new Image(ImageDataFactory.create(UtilBase64.getLogoBase64()));
+    private static ImageData logoDoCabecalho(LocalPdfParameters parametros) {
+        if (parametros.getLogo() != null) {
+            return parametros.getLogo();
+        }
+        if (parametros.getLogoBase64() != null) {
+            return ImageDataFactory.create(UtilBase64.getImagem(parametros.getLogoBase64()));
         }
+        return LOGO_PADRAO;
+    }
+
+    private void addCabecalho(String titulo, String subtitulo, ImageData imagemLogo) {
+        // Load the logo
+        Image logo = new Image(imagemLogo);
 
         logo.setWidth(90.0F);
 
@@ -204,6 +233,22 @@ public class LocalPdfUtil {
     }
 
     public void iniciarTabela(LocalPdfTable params) {
+        this.iniciarTabela(params, false);
+    }
+
+    /**
+     * Inicia uma tabela "grande": já é adicionada ao documento, o cabeçalho se repete em cada página e as linhas
+     * podem ser descarregadas com {@link #descarregarTabela()} à medida que são incluídas.
+     * Encerrar com {@link #concluirTabela()}.
+     */
+    public void iniciarTabelaGrande(LocalPdfTable params) {
+        this.iniciarTabela(params, true);
+        if (this.table != null) {
+            this.doc.add(this.table);
+        }
+    }
+
+    private void iniciarTabela(LocalPdfTable params, boolean tabelaGrande) {
         if (params == null || params.getColunas().length == 0 || params.getCabecalhos().length == 0) {
             return;
         }
@@ -214,7 +259,7 @@ public class LocalPdfUtil {
             colunasFloat[i] = params.getColunas()[i];
         }
 
-        this.table = new Table(UnitValue.createPercentArray(colunasFloat));
+        this.table = new Table(UnitValue.createPercentArray(colunasFloat), tabelaGrande);
         this.table.setWidth(UnitValue.createPercentValue(100.0F));
         this.table.setTextAlignment(TextAlignment.CENTER);
         if (paramsTable.isBordaTabela()) {
@@ -237,7 +282,11 @@ public class LocalPdfUtil {
                 p.setFontColor(params.getCorFonteCabecalho());
                 p.setBackgroundColor(params.getCorCabecalho());
                 p.setTextAlignment(params.getAlignment());
-                this.table.addCell((new Cell()).add(p));
+                if (tabelaGrande) {
+                    this.table.addHeaderCell((new Cell()).add(p));
+                } else {
+                    this.table.addCell((new Cell()).add(p));
+                }
             }
         }
 
@@ -281,11 +330,29 @@ public class LocalPdfUtil {
         this.doc.add(this.table);
     }
 
+    /**
+     * Envia para o documento as linhas já incluídas na tabela grande, liberando-as da memória.
+     */
+    public void descarregarTabela() {
+        this.table.flush();
+    }
+
+    public void concluirTabela() {
+        this.table.complete();
+    }
+
     public byte[] encerrarRelatorio() {
+        this.fecharRelatorio();
+        return this.outMemoria != null ? this.outMemoria.toByteArray() : new byte[0];
+    }
+
+    public void fecharRelatorio() {
         this.doc.flush();
+        if (this.rodape != null) {
+            this.rodape.escreverTotalPaginas(this.pdfDoc);
+        }
         this.pdfDoc.close();
         this.doc.close();
-        return this.out.toByteArray();
     }
 
     public void addBlock(BlockElement<?> block) {
@@ -296,6 +363,16 @@ public class LocalPdfUtil {
         this.addRodape("");
     }
 
+    /**
+     * Registra o rodapé (página X de Y, usuário e data) para ser desenhado à medida que cada página é concluída.
+     * Diferente de {@link #addRodape(String)}, não exige manter todas as páginas abertas até o fim,
+     * podendo ser usado com {@code immediateFlush}. Chamar logo após iniciar o relatório.
+     */
+    public void addRodapeEmCadaPagina(String nome) {
+        this.rodape = new LocalPdfRodape(nome);
+        this.pdfDoc.addEventHandler(PdfDocumentEvent.END_PAGE, this.rodape);
+    }
+
     public void addRodape(String nome) {
         int numberOfPages = this.pdfDoc.getNumberOfPages();
 
@@ -0,0 +1,34 @@
+package com.escola.admin.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRelayTest {
+
+    @Test
+    void removeOPrefixoBearerSemDiferenciarMaiusculas() {
+        assertThat(TokenRelay.semPrefixo("Bearer abc.def")).isEqualTo("abc.def");
+        assertThat(TokenRelay.semPrefixo("bearer abc.def")).isEqualTo("abc.def");
+        assertThat(TokenRelay.semPrefixo("BEARER abc.def")).isEqualTo("abc.def");
+    }
+
+    @Test
+    void mantemTokenSemPrefixo() {
+        assertThat(TokenRelay.semPrefixo("abc.def")).isEqualTo("abc.def");
+        assertThat(TokenRelay.semPrefixo("Bearerabc")).isEqualTo("Bearerabc");
+    }
+
+    @Test
+    void tokenNuloOuVazioResultaEmContextoVazio() {
+        assertThat(TokenRelay.semPrefixo(null)).isNull();
+        assertThat(TokenRelay.semPrefixo("  ")).isNull();
+        assertThat(TokenRelay.comToken(null).isEmpty()).isTrue();
+        assertThat(TokenRelay.comToken("")).satisfies(contexto -> assertThat(TokenRelay.doContexto(contexto)).isEmpty());
+    }
+
+    @Test
+    void contextoLevaOTokenSemPrefixo() {
+        assertThat(TokenRelay.doContexto(TokenRelay.comToken("Bearer abc.def"))).contains("abc.def");
+    }
+}
@@ -0,0 +1,89 @@
+package com.escola.admin.service.impl;
+
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Benchmark manual (não é executado pelo {@code gradle test}) da conversão de contratos para PDF:
+ * compara a conversão anterior (CSS lido e concatenado ao HTML a cada chamada, renderizador padrão)
+ * com a atual de {@link PdfConverterServiceImpl}.
+ * <p>
+ * Execução: rodar o {@code main} pela IDE (classpath de testes). Argumentos opcionais: iterações e aquecimento.
+ */
+public class PdfConverterBenchmark {
+
+    private static final String CONTRATO = """
+            <h1 class="ql-align-center">CONTRATO DE PRESTAÇÃO DE SERVIÇOS EDUCACIONAIS</h1>
+            <p><strong>CONTRATANTE:</strong> Maria da Silva, CPF 000.000.000-00, residente na Rua das Flores, 100.</p>
+            <p><strong>CONTRATADA:</strong> Escola Exemplo Ltda, CNPJ 00.000.000/0001-00.</p>
+            %s
+            <p class="ql-align-right">Goiânia, 10 de janeiro de 2025.</p>
+            """;
+
+    private static final String CLAUSULA = """
+            <h2>CLÁUSULA %d</h2>
+            <p class="ql-align-justify">O presente contrato tem por objeto a prestação de serviços educacionais ao
+            aluno indicado, no curso e turma descritos na matrícula, mediante o pagamento das parcelas&nbsp;previstas,
+            observadas as condições gerais da instituição e a legislação aplicável.</p>
+            <ul><li>Mensalidade com vencimento todo dia 10.</li><li>Multa de 2%% após o vencimento.</li></ul>
+            """;
+
+    public static void main(String[] args) throws Exception {
+        int iteracoes = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int aquecimento = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        StringBuilder clausulas = new StringBuilder();
+        for (int i = 1; i <= 20; i++) {
+            clausulas.append(CLAUSULA.formatted(i));
+        }
+        String html = CONTRATO.formatted(clausulas);
+
+        PdfConverterServiceImpl atual = new PdfConverterServiceImpl();
+
+        medir("anterior", iteracoes, aquecimento, () -> converterAnterior(html));
+        medir("atual", iteracoes, aquecimento, () -> atual.convertHtmlToPdfBase64(html));
+    }
+
+    private static void medir(String nome, int iteracoes, int aquecimento, Conversao conversao) throws Exception {
+        for (int i = 0; i < aquecimento; i++) {
+            conversao.executar();
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < iteracoes; i++) {
+            conversao.executar();
+        }
+        double mediaMs = (System.nanoTime() - inicio) / 1_000_000.0 / iteracoes;
+        System.out.printf("%-10s %8.2f ms por contrato (%d iterações)%n", nome, mediaMs, iteracoes);
+    }
+
+    /**
+     * Reprodução da implementação anterior, para comparação.
+     */
+    private static String converterAnterior(String htmlContent) throws IOException {
+        String css;
+        try (InputStream in = new ClassPathResource(PdfConverterServiceImpl.CSS_EDITOR).getInputStream()) {
+            css = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String styled = "<html><head><style>" + css + "</style></head><body class=\"ql-editor\"> " + htmlContent + " </body></html>";
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.withW3cDocument(new W3CDom().fromJsoup(Jsoup.parse(styled)), "/");
+        builder.toStream(os);
+        builder.run();
+        return Base64.getEncoder().encodeToString(os.toByteArray());
+    }
+
+    @FunctionalInterface
+    private interface Conversao {
+        String executar() throws Exception;
+    }
+}
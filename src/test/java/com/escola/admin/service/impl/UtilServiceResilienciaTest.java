@@ -0,0 +1,177 @@
+package com.escola.admin.service.impl;
+
+import com.escola.admin.config.GraphQlClientConfig;
+import com.escola.admin.exception.BaseException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Retentativas, circuit breaker e limite do pool de conexões contra um util-service simulado (Reactor Netty).
+ */
+class UtilServiceResilienciaTest {
+
+    private static final int MAX_RETENTATIVAS = 2;
+    private static final int JANELA = 4;
+
+    private final AtomicInteger requisicoes = new AtomicInteger();
+    private final CountDownLatch lentaRecebida = new CountDownLatch(1);
+    private DisposableServer servidor;
+    private ConnectionProvider pool;
+
+    @BeforeEach
+    void iniciarServidor() {
+        servidor = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(rotas -> rotas
+                        .get("/status/{codigo}", (requisicao, resposta) -> {
+                            requisicoes.incrementAndGet();
+                            return resposta.status(Integer.parseInt(requisicao.param("codigo"))).send();
+                        })
+                        // Conexão encerrada com RST antes de qualquer resposta.
+                        .get("/reset", (requisicao, resposta) -> {
+                            requisicoes.incrementAndGet();
+                            resposta.withConnection(conexao -> {
+                                conexao.channel().config().setOption(ChannelOption.SO_LINGER, 0);
+                                conexao.channel().close();
+                            });
+                            return Mono.never();
+                        })
+                        .get("/lento", (requisicao, resposta) -> {
+                            requisicoes.incrementAndGet();
+                            lentaRecebida.countDown();
+                            return resposta.sendString(Mono.just("ok").delayElement(Duration.ofSeconds(5)));
+                        }))
+                .bindNow();
+        pool = ConnectionProvider.create("util-service-teste", 10);
+    }
+
+    @AfterEach
+    void encerrarServidor() {
+        pool.dispose();
+        servidor.disposeNow();
+    }
+
+    private static UtilServiceResiliencia resiliencia() {
+        return new UtilServiceResiliencia(MAX_RETENTATIVAS, Duration.ofMillis(10), 50, JANELA, JANELA,
+                Duration.ofSeconds(30), Duration.ofSeconds(5), new SimpleMeterRegistry());
+    }
+
+    /**
+     * A retentativa interna do Reactor Netty fica desligada para que cada tentativa chegue ao servidor uma única vez.
+     */
+    private Mono<String> chamada(ConnectionProvider connectionProvider, String caminho) {
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + servidor.port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider).disableRetry(true)))
+                .build()
+                .get()
+                .uri(caminho)
+                .retrieve()
+                .bodyToMono(String.class);
+    }
+
+    private Mono<String> chamada(String caminho) {
+        return chamada(pool, caminho);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/status/502", "/status/503", "/reset"})
+    void consultaRepeteFalhasDeTransporte(String caminho) {
+        StepVerifier.create(resiliencia().consulta("teste", chamada(caminho)))
+                .expectErrorSatisfies(erro -> assertThat(UtilServiceResiliencia.falhaTransitoria(erro)).isTrue())
+                .verify(Duration.ofSeconds(10));
+
+        assertThat(requisicoes).hasValue(1 + MAX_RETENTATIVAS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/status/502", "/status/503", "/reset"})
+    void mutacaoNuncaERepetida(String caminho) {
+        StepVerifier.create(resiliencia().mutacao("teste", chamada(caminho)))
+                .expectError()
+                .verify(Duration.ofSeconds(10));
+
+        assertThat(requisicoes).hasValue(1);
+    }
+
+    @Test
+    void erroDeNegocioNaoERepetidoNemAbreOCircuito() {
+        UtilServiceResiliencia resiliencia = resiliencia();
+
+        for (int i = 0; i < JANELA * 2; i++) {
+            StepVerifier.create(resiliencia.consulta("teste", chamada("/status/400")))
+                    .expectError(WebClientResponseException.BadRequest.class)
+                    .verify(Duration.ofSeconds(10));
+        }
+
+        assertThat(requisicoes).hasValue(JANELA * 2);
+    }
+
+    @Test
+    void circuitoAbertoRejeitaSemChamarOServidor() {
+        UtilServiceResiliencia resiliencia = resiliencia();
+        for (int i = 0; i < JANELA; i++) {
+            StepVerifier.create(resiliencia.mutacao("teste", chamada("/status/503")))
+                    .expectError(WebClientResponseException.ServiceUnavailable.class)
+                    .verify(Duration.ofSeconds(10));
+        }
+
+        StepVerifier.create(resiliencia.consulta("teste", chamada("/status/503")))
+                .expectErrorSatisfies(erro -> assertThat(erro)
+                        .isInstanceOf(BaseException.class)
+                        .hasMessageContaining("indisponível"))
+                .verify(Duration.ofSeconds(10));
+
+        assertThat(requisicoes).hasValue(JANELA);
+    }
+
+    @Test
+    void poolCheioFalhaPorTempoDeEsperaDaConexao() throws InterruptedException {
+        ConnectionProvider poolCheio = new GraphQlClientConfig().utilServiceConnectionProvider(
+                1, 1, Duration.ofMillis(200), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        Disposable ocupada = chamada(poolCheio, "/lento").subscribe();
+        try {
+            assertThat(lentaRecebida.await(5, TimeUnit.SECONDS)).isTrue();
+
+            StepVerifier.create(resiliencia().consulta("teste", chamada(poolCheio, "/lento")))
+                    .expectErrorSatisfies(erro -> {
+                        assertThat(erro)
+                                .isInstanceOf(WebClientRequestException.class)
+                                .hasRootCauseInstanceOf(TimeoutException.class);
+                        assertThat(UtilServiceResiliencia.falhaTransitoria(erro)).isTrue();
+                    })
+                    .verify(Duration.ofSeconds(4));
+
+            // Nenhuma das tentativas obteve conexão: só a primeira chamada chegou ao servidor.
+            assertThat(requisicoes).hasValue(1);
+        } finally {
+            ocupada.dispose();
+            poolCheio.dispose();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.escola.admin.service.report;
+
+import com.escola.admin.model.projection.RegistroRelatorio;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PaginasIterableTest {
+
+    private record Registro(Long id) implements RegistroRelatorio {
+    }
+
+    private static List<Registro> registros(long deId, long ateId) {
+        return LongStream.rangeClosed(deId, ateId).mapToObj(Registro::new).toList();
+    }
+
+    @Test
+    void buscaAPartirDoUltimoIdDaPaginaAnterior() {
+        List<Long> ultimosIds = new ArrayList<>();
+        AtomicInteger trocas = new AtomicInteger();
+        PaginasIterable<Registro> paginas = new PaginasIterable<>((ultimoId, pagina) -> {
+            ultimosIds.add(ultimoId);
+            return registros(ultimoId + 1, Math.min(ultimoId + pagina.getPageSize(), 5));
+        }, 2, trocas::incrementAndGet);
+
+        List<Long> lidos = new ArrayList<>();
+        paginas.forEach(registro -> lidos.add(registro.id()));
+
+        assertThat(lidos).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(ultimosIds).containsExactly(0L, 2L, 4L);
+        assertThat(trocas).hasValue(2);
+    }
+
+    @Test
+    void threadInterrompidaNaoBuscaAProximaPagina() {
+        AtomicInteger buscas = new AtomicInteger();
+        PaginasIterable<Registro> paginas = new PaginasIterable<>((ultimoId, pagina) -> {
+            buscas.incrementAndGet();
+            return registros(ultimoId + 1, ultimoId + pagina.getPageSize());
+        }, 2, () -> {
+        });
+
+        Iterator<Registro> linhas = paginas.iterator();
+        linhas.next();
+        linhas.next();
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(linhas::hasNext).isInstanceOf(CancellationException.class);
+            assertThat(buscas).hasValue(1);
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
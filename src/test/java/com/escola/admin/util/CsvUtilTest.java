@@ -0,0 +1,54 @@
+package com.escola.admin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvUtilTest {
+
+    /**
+     * Gera um CSV de uma coluna com o valor informado e devolve a linha de dados (sem BOM, cabeçalho e CRLF).
+     */
+    private static String campo(String valor) throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        CsvUtil.gerarCsv(List.of("coluna"), List.of(valor), v -> new String[]{v}, saida);
+        String csv = saida.toString(StandardCharsets.UTF_8);
+        String[] linhas = csv.substring(1).split(CsvUtil.QUEBRA_LINHA, -1);
+        return linhas[1];
+    }
+
+    @Test
+    void prefixaTextoQueSeriaInterpretadoComoFormula() throws Exception {
+        assertThat(campo("=SOMA(A1:A2)")).isEqualTo("'=SOMA(A1:A2)");
+        assertThat(campo("+5511999999999")).isEqualTo("'+5511999999999");
+        assertThat(campo("@usuario")).isEqualTo("'@usuario");
+        assertThat(campo("-HYPERLINK(\"x\")")).isEqualTo("\"'-HYPERLINK(\"\"x\"\")\"");
+        assertThat(campo("\tcomando")).isEqualTo("'\tcomando");
+    }
+
+    @Test
+    void mantemNumerosNegativosETextoComum() throws Exception {
+        assertThat(campo("-150,75")).isEqualTo("-150,75");
+        assertThat(campo("-1.234,50")).isEqualTo("-1.234,50");
+        assertThat(campo("Maria da Silva")).isEqualTo("Maria da Silva");
+        assertThat(campo("a=b")).isEqualTo("a=b");
+    }
+
+    @Test
+    void colocaEntreAspasCamposComSeparadorOuAspas() throws Exception {
+        assertThat(campo("Rua A; 100")).isEqualTo("\"Rua A; 100\"");
+        assertThat(campo("diz \"olá\"")).isEqualTo("\"diz \"\"olá\"\"\"");
+    }
+
+    @Test
+    void gravaBomECabecalho() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        CsvUtil.gerarCsv(List.of("Nome", "Valor"), List.<String[]>of(), v -> v, saida);
+
+        assertThat(saida.toString(StandardCharsets.UTF_8)).isEqualTo("\uFEFFNome;Valor\r\n");
+    }
+}
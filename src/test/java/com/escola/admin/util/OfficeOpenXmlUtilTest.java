@@ -0,0 +1,56 @@
+package com.escola.admin.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OfficeOpenXmlUtilTest {
+
+    /**
+     * Gera uma planilha só com a linha de cabeçalhos e devolve o XML da aba.
+     */
+    private static String planilha(int colunas) throws Exception {
+        List<String> cabecalhos = IntStream.rangeClosed(1, colunas).mapToObj(i -> "C" + i).toList();
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+        OfficeOpenXmlUtil.gerarPlanilha("Teste", cabecalhos, List.<String[]>of(), v -> v, saida);
+
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(saida.toByteArray()), StandardCharsets.UTF_8)) {
+            for (ZipEntry entrada = zip.getNextEntry(); entrada != null; entrada = zip.getNextEntry()) {
+                if (entrada.getName().equals("xl/worksheets/sheet1.xml")) {
+                    return new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        throw new AssertionError("Aba não encontrada na planilha gerada.");
+    }
+
+    @Test
+    void referenciaDasColunasSegueOPadraoDoExcel() throws Exception {
+        String xml = planilha(703);
+
+        assertThat(xml)
+                .contains("r=\"A1\"")
+                .contains("r=\"Z1\"")
+                .contains("r=\"AA1\"")
+                .contains("r=\"AZ1\"")
+                .contains("r=\"BA1\"")
+                .contains("r=\"ZZ1\"")
+                .contains("r=\"AAA1\"");
+    }
+
+    @Test
+    void celulaDaColunaCorrespondeAoCabecalho() throws Exception {
+        String xml = planilha(28);
+
+        assertThat(xml).containsPattern("r=\"Z1\"[^>]*><is><t[^>]*>C26<");
+        assertThat(xml).containsPattern("r=\"AB1\"[^>]*><is><t[^>]*>C28<");
+    }
+}
@@ -0,0 +1,84 @@
+package com.escola.admin.util;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    @Test
+    void chamadasSimultaneasComAMesmaChaveExecutamUmaVez() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        AtomicInteger execucoes = new AtomicInteger();
+        Sinks.One<String> resultado = Sinks.one();
+
+        Mono<String> primeira = singleFlight.executar("a", () -> {
+            execucoes.incrementAndGet();
+            return resultado.asMono();
+        });
+        Mono<String> segunda = singleFlight.executar("a", () -> {
+            execucoes.incrementAndGet();
+            return Mono.just("outra");
+        });
+
+        StepVerifier.create(Mono.zip(primeira, segunda))
+                .then(() -> {
+                    assertThat(singleFlight.emAndamento()).isEqualTo(1);
+                    resultado.tryEmitValue("valor");
+                })
+                .assertNext(par -> {
+                    assertThat(par.getT1()).isEqualTo("valor");
+                    assertThat(par.getT2()).isEqualTo("valor");
+                })
+                .verifyComplete();
+
+        assertThat(execucoes).hasValue(1);
+        assertThat(singleFlight.emAndamento()).isZero();
+    }
+
+    @Test
+    void chavesDiferentesExecutamSeparadamente() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        StepVerifier.create(Mono.zip(
+                        singleFlight.executar("a", () -> Mono.just("A")),
+                        singleFlight.executar("b", () -> Mono.just("B"))))
+                .assertNext(par -> {
+                    assertThat(par.getT1()).isEqualTo("A");
+                    assertThat(par.getT2()).isEqualTo("B");
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void semCacheDeResultadoAposOTermino() {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger execucoes = new AtomicInteger();
+
+        StepVerifier.create(singleFlight.executar("a", () -> Mono.fromSupplier(execucoes::incrementAndGet)))
+                .expectNext(1)
+                .verifyComplete();
+        StepVerifier.create(singleFlight.executar("a", () -> Mono.fromSupplier(execucoes::incrementAndGet)))
+                .expectNext(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void erroEEntregueATodosELiberaAChave() {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+        StepVerifier.create(singleFlight.executar("a", () -> Mono.error(new IllegalStateException("falhou"))))
+                .expectErrorMessage("falhou")
+                .verify();
+
+        assertThat(singleFlight.emAndamento()).isZero();
+        StepVerifier.create(singleFlight.executar("a", () -> Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+}